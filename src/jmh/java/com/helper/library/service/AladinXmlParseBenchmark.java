@@ -0,0 +1,61 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.helper.library.dto.AladinApiResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// 기존 방식(String 으로 읽은 뒤 XmlMapper 바인딩)과 스트림 pull 파싱, 일부 열만 읽는 파싱 비교
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AladinXmlParseBenchmark {
+
+    private XmlMapper xmlMapper;
+    private AladinXmlParser aladinXmlParser;
+    private byte[] response;
+    private ColumnProjection projection;
+
+    @Setup
+    public void setUp() {
+        xmlMapper = new XmlMapper();
+        aladinXmlParser = new AladinXmlParser(xmlMapper);
+        response = BenchmarkFixtures.itemLookUpXml(42);
+        projection = ColumnProjection.parse("isbn13,title,author,publisher,priceSales");
+    }
+
+    @Benchmark
+    public AladinApiResponseDto xmlMapperFromString() throws IOException {
+        String body = new String(response, StandardCharsets.UTF_8);
+        if (body.contains("<error>")) {
+            return null;
+        }
+        return xmlMapper.readValue(body, AladinApiResponseDto.class);
+    }
+
+    @Benchmark
+    public AladinXmlParser.Result streamingParser() {
+        return aladinXmlParser.parse(new ByteArrayInputStream(response));
+    }
+
+    @Benchmark
+    public AladinXmlParser.Result streamingParserProjected() {
+        return aladinXmlParser.parse(new ByteArrayInputStream(response), projection);
+    }
+}
@@ -0,0 +1,215 @@
+package com.helper.library.service;
+
+import com.helper.library.config.LookupProperties;
+import com.helper.library.config.OutputProperties;
+import com.helper.library.dto.AladinItemDto;
+import com.helper.library.dto.AladinSubInfoDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 네트워크 없이 벤치마크를 돌리기 위한 고정 데이터
+final class BenchmarkFixtures {
+
+    private static final String DESCRIPTION = ("오랜 시간 독자들의 사랑을 받아온 작가가 10년 만에 펴내는 장편소설. "
+            + "작은 도서관을 배경으로 책과 사람, 그리고 기억에 관한 이야기가 잔잔하게 펼쳐진다. ").repeat(12);
+
+    private BenchmarkFixtures() {
+    }
+
+    static String isbn13(int seed) {
+        String body = "979" + String.format("%09d", seed % 1_000_000_000);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+
+    static List<String> isbns(int count) {
+        List<String> isbns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            isbns.add(isbn13(i));
+        }
+        return isbns;
+    }
+
+    // 붙여넣기 입력처럼 공백, 빈 줄, CRLF 가 섞인 텍스트
+    static String pastedText(int lines) {
+        StringBuilder text = new StringBuilder(lines * 16);
+        for (int i = 0; i < lines; i++) {
+            if (i % 50 == 0) {
+                text.append("\r\n");
+            }
+            text.append(i % 7 == 0 ? "  " : "").append(isbn13(i)).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        return text.toString();
+    }
+
+    // 실제 소장 목록 엑셀처럼 ISBN 외에도 여러 열이 채워진 시트, ISBN 은 J 열
+    static byte[] inventoryXlsx(int rows) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("소장 목록");
+            Row header = sheet.createRow(0);
+            String[] columns = {"등록번호", "서명", "저자", "출판사", "발행년", "청구기호", "소장처", "상태", "비고", "ISBN"};
+            for (int i = 0; i < columns.length; i++) {
+                header.createCell(i).setCellValue(columns[i]);
+            }
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue("EM" + String.format("%07d", r));
+                row.createCell(1).setCellValue("도서관 책벌레 " + r + "권 - 부제목");
+                row.createCell(2).setCellValue("홍길동 (지은이)");
+                row.createCell(3).setCellValue("책벌레출판사");
+                row.createCell(4).setCellValue(2000 + r % 25);
+                row.createCell(5).setCellValue("813.7-홍14ㄷ-" + r);
+                row.createCell(6).setCellValue("종합자료실");
+                row.createCell(7).setCellValue("대출가능");
+                row.createCell(8).setCellValue("");
+                // 엑셀에서 ISBN 은 숫자와 문자열 셀이 섞여 있는 경우가 흔함
+                if (r % 2 == 0) {
+                    row.createCell(9).setCellValue(Double.parseDouble(isbn13(r)));
+                } else {
+                    row.createCell(9).setCellValue(isbn13(r));
+                }
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    static byte[] inventoryCsv(int rows) {
+        StringBuilder csv = new StringBuilder(rows * 96);
+        csv.append("등록번호,서명,저자,출판사,발행년,청구기호,소장처,상태,비고,ISBN\r\n");
+        for (int r = 1; r <= rows; r++) {
+            csv.append("EM").append(String.format("%07d", r))
+                    .append(",\"도서관 책벌레 ").append(r).append("권, 부제목\"")
+                    .append(",홍길동 (지은이),책벌레출판사,").append(2000 + r % 25)
+                    .append(",813.7-홍14ㄷ-").append(r)
+                    .append(",종합자료실,대출가능,,")
+                    .append(isbn13(r)).append("\r\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static AladinItemDto item(int seed) {
+        AladinItemDto item = new AladinItemDto();
+        item.setTitle("도서관 책벌레 " + seed + "권 - 책을 사랑하는 사람들의 이야기");
+        item.setAuthor("홍길동 (지은이), 김철수 (옮긴이)");
+        item.setPubDate("2024-03-15");
+        item.setDescription(DESCRIPTION);
+        item.setIsbn("89" + String.format("%08d", seed));
+        item.setIsbn13(isbn13(seed));
+        item.setPriceSales(15120);
+        item.setPriceStandard(16800);
+        item.setCover("https://image.aladin.co.kr/product/3000/1/coversum/" + isbn13(seed) + "_1.jpg");
+        item.setCategoryId(50993);
+        item.setCategoryName("국내도서>소설/시/희곡>한국소설>2000년대 이후 한국소설");
+        item.setPublisher("책벌레출판사");
+        item.setLink("http://www.aladin.co.kr/shop/wproduct.aspx?ItemId=" + (300000000 + seed) + "&partner=openAPI&start=api");
+
+        AladinSubInfoDto subInfo = new AladinSubInfoDto();
+        subInfo.setSubTitle("책을 사랑하는 사람들의 이야기");
+        subInfo.setOriginalTitle("");
+        subInfo.setItemPage(352);
+        item.setSubInfo(subInfo);
+        return item;
+    }
+
+    // ItemLookUp.aspx (output=xml, OptResult=packing,subinfo) 응답 형식
+    static byte[] itemLookUpXml(int seed) {
+        AladinItemDto item = item(seed);
+        String xml = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <object xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx">
+                  <version>20131101</version>
+                  <title>알라딘 상품정보 - %s</title>
+                  <link>%s</link>
+                  <pubDate>Mon, 15 Apr 2024 10:00:00 GMT</pubDate>
+                  <totalResults>1</totalResults>
+                  <startIndex>1</startIndex>
+                  <itemsPerPage>1</itemsPerPage>
+                  <query>isbn13=%s</query>
+                  <searchCategoryId>0</searchCategoryId>
+                  <searchCategoryName />
+                  <item itemId="%d">
+                    <title>%s</title>
+                    <link>%s</link>
+                    <author>%s</author>
+                    <pubDate>%s</pubDate>
+                    <description>%s</description>
+                    <isbn>%s</isbn>
+                    <isbn13>%s</isbn13>
+                    <priceSales>%d</priceSales>
+                    <priceStandard>%d</priceStandard>
+                    <mallType>BOOK</mallType>
+                    <stockStatus />
+                    <mileage>840</mileage>
+                    <cover>%s</cover>
+                    <categoryId>%d</categoryId>
+                    <categoryName>%s</categoryName>
+                    <publisher>%s</publisher>
+                    <salesPoint>12840</salesPoint>
+                    <adult>false</adult>
+                    <fixedPrice>true</fixedPrice>
+                    <customerReviewRank>9</customerReviewRank>
+                    <subInfo>
+                      <subTitle>%s</subTitle>
+                      <originalTitle />
+                      <itemPage>%d</itemPage>
+                      <packing>
+                        <styleDesc>양장본</styleDesc>
+                        <weight>520</weight>
+                        <sizeDepth>22</sizeDepth>
+                        <sizeHeight>210</sizeHeight>
+                        <sizeWidth>140</sizeWidth>
+                      </packing>
+                    </subInfo>
+                  </item>
+                </object>
+                """.formatted(
+                item.getTitle(), item.getLink().replace("&", "&amp;"), item.getIsbn13(),
+                300000000 + seed, item.getTitle(), item.getLink().replace("&", "&amp;"), item.getAuthor(),
+                item.getPubDate(), item.getDescription(), item.getIsbn(), item.getIsbn13(),
+                item.getPriceSales(), item.getPriceStandard(), item.getCover(), item.getCategoryId(),
+                item.getCategoryName().replace(">", "&gt;"), item.getPublisher(),
+                item.getSubInfo().getSubTitle(), item.getSubInfo().getItemPage());
+        return xml.strip().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static ExcelService excelService(IsbnLookupEngine engine, ExecutorService executor) {
+        return new ExcelService(engine, executor, new OutputProperties(), new SimpleMeterRegistry());
+    }
+
+    static ExecutorService executor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // API 호출 없이 고정 도서 정보를 입력 순서대로 돌려주는 조회 엔진 (10건 중 1건은 검색 결과 없음)
+    static IsbnLookupEngine fixtureEngine(ExecutorService executor) {
+        return new IsbnLookupEngine(null, executor, new LookupProperties()) {
+            @Override
+            public void lookupInOrder(IsbnFeed feed, int fromIndex, String ttbkey, ColumnProjection projection,
+                                      LookupListener listener, LookupListener onCompleted) {
+                for (int i = fromIndex; i < feed.size(); i++) {
+                    LookupResult result = i % 10 == 9 ? LookupResult.notFound(true) : LookupResult.found(item(i), true);
+                    onCompleted.onResult(i, feed.get(i), result);
+                    listener.onResult(i, feed.get(i), result);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.helper.library.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IsbnParseBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private ExecutorService executor;
+    private ExcelService excelService;
+    private String pastedText;
+    private MockMultipartFile xlsxFile;
+    private MockMultipartFile csvFile;
+    private List<String> catalogueIsbns;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        executor = BenchmarkFixtures.executor();
+        excelService = BenchmarkFixtures.excelService(null, executor);
+        pastedText = BenchmarkFixtures.pastedText(rows);
+        xlsxFile = new MockMultipartFile("file", "inventory.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", BenchmarkFixtures.inventoryXlsx(rows));
+        csvFile = new MockMultipartFile("file", "inventory.csv", "text/csv", BenchmarkFixtures.inventoryCsv(rows));
+        // 구형 목록에서 내려받은 것처럼 하이픈이 섞인 ISBN-13 과 ISBN-10 을 섞음
+        catalogueIsbns = new ArrayList<>(rows);
+        for (String isbn : BenchmarkFixtures.isbns(rows)) {
+            int mod = catalogueIsbns.size() % 3;
+            if (mod == 1) {
+                isbn = isbn.substring(0, 3) + "-" + isbn.substring(3, 5) + "-" + isbn.substring(5, 12) + "-" + isbn.charAt(12);
+            } else if (mod == 2) {
+                isbn = "89-" + isbn.substring(5, 12);
+                isbn = isbn + isbn10CheckDigit(isbn);
+            }
+            catalogueIsbns.add(isbn);
+        }
+    }
+
+    private static char isbn10CheckDigit(String isbn) {
+        int sum = 0;
+        int weight = 10;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c != '-') {
+                sum += (c - '0') * weight--;
+            }
+        }
+        int check = (11 - sum % 11) % 11;
+        return check == 10 ? 'X' : (char) ('0' + check);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int readIsbnLines() throws IOException {
+        IsbnFeed feed = new IsbnFeed();
+        excelService.readIsbnLines(new StringReader(pastedText), feed);
+        return feed.size();
+    }
+
+    @Benchmark
+    public List<String> parseIsbnFromXlsx() throws IOException {
+        return excelService.parseIsbnFromExcel(xlsxFile, "J", 2);
+    }
+
+    @Benchmark
+    public List<String> parseIsbnFromCsv() throws IOException {
+        return excelService.parseIsbnFromExcel(csvFile, "J", 2);
+    }
+
+    @Benchmark
+    public int normalizeIsbns() {
+        int valid = 0;
+        for (String isbn : catalogueIsbns) {
+            if (IsbnNormalizer.normalize(isbn) != null) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,101 @@
+package com.helper.library.service;
+
+import com.helper.library.dto.AladinItemDto;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class WorkbookBenchmark {
+
+    // 행 하나의 17개 열 파생 + 셀 생성 비용
+    @State(Scope.Thread)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(1)
+    public static class PopulateRow {
+
+        private XSSFWorkbook workbook;
+        private Row row;
+        private ExcelService excelService;
+        private AladinItemDto item;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workbook = new XSSFWorkbook();
+            row = workbook.createSheet().createRow(1);
+            excelService = BenchmarkFixtures.excelService(null, null);
+            item = BenchmarkFixtures.item(7);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            workbook.close();
+        }
+
+        @Benchmark
+        public Row populateRowWithData() {
+            excelService.populateRowWithData(row, item);
+            return row;
+        }
+    }
+
+    // 조회 결과를 받아 전체 워크북을 만들고 파일로 쓰기까지
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+    public static class GenerateWorkbook {
+
+        @Param({"10000", "50000"})
+        public int rows;
+
+        private ExecutorService executor;
+        private ExcelService excelService;
+        private List<String> isbns;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            executor = BenchmarkFixtures.executor();
+            excelService = BenchmarkFixtures.excelService(BenchmarkFixtures.fixtureEngine(executor), executor);
+            isbns = BenchmarkFixtures.isbns(rows);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.shutdown();
+        }
+
+        @Benchmark
+        public long createExcelFile() throws IOException {
+            Path resultFile = excelService.createExcelFile(isbns, "benchmark", new JobProgress()).join();
+            try {
+                return Files.size(resultFile);
+            } finally {
+                Files.deleteIfExists(resultFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.helper.library.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 알라딘 ItemLookUp.aspx 대역. 지연 시간은 median/p99 로 정한 로그정규분포를 따르고,
+// 설정한 비율로 HTTP 500, <error> 응답, 빈 결과를 돌려주며 초당 요청 수를 넘으면 한도 초과 응답을 보냄
+public class AladinStubServer implements AutoCloseable {
+
+    private static final String ERROR_TEMPLATE = """
+            <?xml version="1.0" encoding="utf-8"?><error xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx"><errorCode>%d</errorCode><errorMessage>%s</errorMessage></error>""";
+
+    private static final String EMPTY_TEMPLATE = """
+            <?xml version="1.0" encoding="utf-8"?><object xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx"><version>20131101</version><totalResults>0</totalResults><startIndex>1</startIndex><itemsPerPage>1</itemsPerPage><query>isbn13=%s</query></object>""";
+
+    private static final String ITEM_TEMPLATE = """
+            <?xml version="1.0" encoding="utf-8"?><object xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx"><version>20131101</version><title>알라딘 상품정보 - 부하 테스트 도서 %1$s</title><totalResults>1</totalResults><startIndex>1</startIndex><itemsPerPage>1</itemsPerPage><query>isbn13=%1$s</query><item itemId="%2$d"><title>부하 테스트 도서 %1$s - 책벌레 시리즈</title><link>http://www.aladin.co.kr/shop/wproduct.aspx?ItemId=%2$d&amp;partner=openAPI&amp;start=api</link><author>홍길동 (지은이), 김철수 (옮긴이)</author><pubDate>2024-03-15</pubDate><description>%3$s</description><isbn>89%4$08d</isbn><isbn13>%1$s</isbn13><priceSales>15120</priceSales><priceStandard>16800</priceStandard><mallType>BOOK</mallType><stockStatus /><mileage>840</mileage><cover>https://image.aladin.co.kr/product/3000/1/coversum/%1$s_1.jpg</cover><categoryId>50993</categoryId><categoryName>국내도서&gt;소설/시/희곡&gt;한국소설&gt;2000년대 이후 한국소설</categoryName><publisher>책벌레출판사</publisher><salesPoint>12840</salesPoint><adult>false</adult><fixedPrice>true</fixedPrice><customerReviewRank>9</customerReviewRank><subInfo><subTitle>책벌레 시리즈</subTitle><originalTitle /><itemPage>352</itemPage><packing><styleDesc>양장본</styleDesc><weight>520</weight><sizeDepth>22</sizeDepth><sizeHeight>210</sizeHeight><sizeWidth>140</sizeWidth></packing></subInfo></item></object>""";
+
+    private static final String DESCRIPTION = ("작은 도서관을 배경으로 책과 사람, 그리고 기억에 관한 이야기가 잔잔하게 펼쳐진다. ").repeat(10);
+
+    private final Options options;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong windowStartSecond = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+
+    public record Options(int port, double medianLatencyMs, double p99LatencyMs, double httpErrorRate,
+                          double errorPayloadRate, double notFoundRate, int maxRequestsPerSecond, boolean rateLimitAsPayload) {
+
+        public static Options from(Map<String, String> args) {
+            return new Options(
+                    Integer.parseInt(args.getOrDefault("stub.port", "18089")),
+                    Double.parseDouble(args.getOrDefault("stub.median-ms", "120")),
+                    Double.parseDouble(args.getOrDefault("stub.p99-ms", "900")),
+                    Double.parseDouble(args.getOrDefault("stub.http-error-rate", "0.005")),
+                    Double.parseDouble(args.getOrDefault("stub.error-payload-rate", "0.005")),
+                    Double.parseDouble(args.getOrDefault("stub.not-found-rate", "0.05")),
+                    Integer.parseInt(args.getOrDefault("stub.max-rps", "0")),
+                    Boolean.parseBoolean(args.getOrDefault("stub.rate-limit-as-payload", "false")));
+        }
+    }
+
+    public AladinStubServer(Options options) throws IOException {
+        this.options = options;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.port()), 1024);
+        server.createContext("/ttb/api/ItemLookUp.aspx", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) throws Exception {
+        AladinStubServer stub = new AladinStubServer(Options.from(LoadHarness.parseArgs(args)));
+        stub.start();
+        System.out.println("Aladin stub listening on " + stub.itemLookupUrl());
+        Thread.currentThread().join();
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String itemLookupUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/ttb/api/ItemLookUp.aspx";
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long rateLimited() {
+        return rateLimited.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            Map<String, String> query = parseQuery(exchange.getRequestURI());
+            String isbn = query.getOrDefault("ItemId", "");
+
+            if (isRateLimited()) {
+                rateLimited.incrementAndGet();
+                if (options.rateLimitAsPayload()) {
+                    respond(exchange, 200, ERROR_TEMPLATE.formatted(10, "일일 호출 한도를 초과하였습니다."));
+                } else {
+                    respond(exchange, 429, "Too Many Requests");
+                }
+                return;
+            }
+
+            sleepLatency();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double roll = random.nextDouble();
+            if (roll < options.httpErrorRate()) {
+                respond(exchange, 500, "Internal Server Error");
+            } else if ((roll -= options.httpErrorRate()) < options.errorPayloadRate()) {
+                respond(exchange, 200, ERROR_TEMPLATE.formatted(8, "잘못된 요청입니다."));
+            } else if (roll - options.errorPayloadRate() < options.notFoundRate()) {
+                respond(exchange, 200, EMPTY_TEMPLATE.formatted(isbn));
+            } else {
+                int seed = Math.abs(isbn.hashCode() % 100_000_000);
+                respond(exchange, 200, ITEM_TEMPLATE.formatted(isbn, 300_000_000 + seed, DESCRIPTION, seed));
+            }
+        }
+    }
+
+    private boolean isRateLimited() {
+        if (options.maxRequestsPerSecond() <= 0) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long window = windowStartSecond.get();
+        if (window != second && windowStartSecond.compareAndSet(window, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() > options.maxRequestsPerSecond();
+    }
+
+    // median 과 p99 로부터 로그정규분포 sigma 를 구함 (p99 의 z 값 2.326)
+    private void sleepLatency() {
+        if (options.medianLatencyMs() <= 0) {
+            return;
+        }
+        double sigma = options.p99LatencyMs() > options.medianLatencyMs()
+                ? Math.log(options.p99LatencyMs() / options.medianLatencyMs()) / 2.326
+                : 0;
+        double latency = options.medianLatencyMs() * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        try {
+            Thread.sleep((long) latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", status == 200 ? "text/xml; charset=utf-8" : "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return query;
+    }
+}
@@ -0,0 +1,342 @@
+package com.helper.library.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.LibraryBookwormApplication;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 여러 클라이언트가 /api/process/text, /api/process/excel 로 대형 작업을 제출하고
+// SSE 로 완료를 기다린 뒤 결과를 내려받을 때까지의 처리량, 작업 지연 p50/p99, 최대 힙 사용량을 측정.
+//
+// ./gradlew loadTest -PloadTestArgs="--isbns=20000 --clients=4 --jobs-per-client=2 --input=mixed"
+// --columns=isbn13,title,author,publisher,priceSales 처럼 열을 지정하면 그 열만 요청하는 작업으로 측정
+// 기본값은 stub 과 애플리케이션을 같은 JVM 에서 띄우는 embedded 모드이고,
+// --target=http://host:port 를 주면 이미 떠 있는 인스턴스(stub 주소로 bookworm.aladin.item-lookup-url 설정)를 대상으로 실행.
+// 엑셀 업로드는 스프링 기본 multipart 한도(1MB)를 넘기 쉬우므로 embedded 모드는 한도를 올려서 띄우고,
+// --target 모드에서는 대상 인스턴스의 spring.servlet.multipart.max-file-size/max-request-size 를 올려둘 것
+public class LoadHarness {
+
+    private final Map<String, String> args;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Long> jobLatenciesMillis = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failedJobs = new AtomicInteger();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+
+    private String target;
+
+    public LoadHarness(Map<String, String> args) {
+        this.args = args;
+    }
+
+    public static void main(String[] rawArgs) throws Exception {
+        new LoadHarness(parseArgs(rawArgs)).run();
+        System.exit(0);
+    }
+
+    static Map<String, String> parseArgs(String[] rawArgs) {
+        Map<String, String> parsed = new HashMap<>();
+        for (String arg : rawArgs) {
+            if (arg.startsWith("--")) {
+                int eq = arg.indexOf('=');
+                if (eq > 2) {
+                    parsed.put(arg.substring(2, eq), arg.substring(eq + 1));
+                } else {
+                    parsed.put(arg.substring(2), "true");
+                }
+            }
+        }
+        return parsed;
+    }
+
+    public void run() throws Exception {
+        int isbnsPerJob = Integer.parseInt(args.getOrDefault("isbns", "10000"));
+        int clients = Integer.parseInt(args.getOrDefault("clients", "4"));
+        int jobsPerClient = Integer.parseInt(args.getOrDefault("jobs-per-client", "1"));
+        String input = args.getOrDefault("input", "mixed");
+        double overlap = Double.parseDouble(args.getOrDefault("overlap", "0.2"));
+
+        AladinStubServer stub = null;
+        ConfigurableApplicationContext context = null;
+        String multipartLimit = args.getOrDefault("max-upload-size", "200MB");
+        if (args.containsKey("target")) {
+            target = args.get("target");
+            if (!"text".equals(input)) {
+                System.out.printf("Excel jobs upload %d-row workbooks, which can exceed Spring's default 1MB multipart limit. "
+                        + "Make sure %s raises spring.servlet.multipart.max-file-size and max-request-size.%n", isbnsPerJob, target);
+            }
+        } else {
+            stub = new AladinStubServer(AladinStubServer.Options.from(args));
+            stub.start();
+            context = SpringApplication.run(LibraryBookwormApplication.class,
+                    "--server.port=0",
+                    "--bookworm.aladin.item-lookup-url=" + stub.itemLookupUrl(),
+                    "--bookworm.store.enabled=false",
+                    "--spring.servlet.multipart.max-file-size=" + multipartLimit,
+                    "--spring.servlet.multipart.max-request-size=" + multipartLimit,
+                    "--bookworm.lookup.permits-per-second=" + args.getOrDefault("permits-per-second", "200"),
+                    "--bookworm.lookup.burst=" + args.getOrDefault("burst", "50"),
+                    "--bookworm.lookup.max-concurrency=" + args.getOrDefault("max-concurrency", "32"),
+                    "--logging.level.com.helper.library=WARN");
+            target = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+        heapSampler.scheduleAtFixedRate(this::sampleHeap, 0, 200, TimeUnit.MILLISECONDS);
+
+        System.out.printf("Running %d clients x %d jobs x %d ISBNs (%s input) against %s%n",
+                clients, jobsPerClient, isbnsPerJob, input, target);
+        long started = System.nanoTime();
+        try (ExecutorService clientPool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                futures.add(clientPool.submit(() -> runClient(client, jobsPerClient, isbnsPerJob, input, overlap)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        heapSampler.shutdownNow();
+        sampleHeap();
+
+        report(clients * jobsPerClient, (long) clients * jobsPerClient * isbnsPerJob, elapsedMillis, stub);
+
+        if (context != null) {
+            context.close();
+        }
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    private void runClient(int client, int jobs, int isbnsPerJob, String input, double overlap) {
+        String ttbkey = "loadtest-" + client;
+        for (int j = 0; j < jobs; j++) {
+            List<String> isbns = isbns(client, j, isbnsPerJob, overlap);
+            boolean excel = "excel".equals(input) || ("mixed".equals(input) && (client + j) % 2 == 1);
+            long started = System.nanoTime();
+            try {
+                String jobId = excel ? submitExcel(isbns, ttbkey) : submitText(isbns, ttbkey);
+                awaitCompletion(jobId);
+                download(jobId);
+                jobLatenciesMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            } catch (Exception e) {
+                failedJobs.incrementAndGet();
+                System.err.printf("Client %d job %d failed: %s%n", client, j, e.getMessage());
+            }
+        }
+    }
+
+    // overlap 비율만큼은 모든 클라이언트가 공유하는 ISBN, 나머지는 클라이언트/작업마다 고유한 ISBN
+    private List<String> isbns(int client, int job, int count, double overlap) {
+        int shared = (int) (count * overlap);
+        List<String> isbns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long seed = i < shared ? i : 1_000_000L + (long) client * 10_000_000L + (long) job * 1_000_000L + i;
+            isbns.add(isbn13(seed));
+        }
+        return isbns;
+    }
+
+    private String submitText(List<String> isbns, String ttbkey) throws IOException, InterruptedException {
+        String columns = args.containsKey("columns") ? "&columns=" + encode(args.get("columns")) : "";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/process/text?ttbkey=" + encode(ttbkey) + columns))
+                .header("Content-Type", "text/plain; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(String.join("\n", isbns)))
+                .build();
+        return expectOk(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private String submitExcel(List<String> isbns, String ttbkey) throws IOException, InterruptedException {
+        String boundary = "----bookworm" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeField(body, boundary, "isbnColumn", "A");
+        writeField(body, boundary, "startRow", "2");
+        writeField(body, boundary, "ttbkey", ttbkey);
+        if (args.containsKey("columns")) {
+            writeField(body, boundary, "columns", args.get("columns"));
+        }
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"loadtest.xlsx\"\r\n"
+                + "Content-Type: application/vnd.openxmlformats-officedocument.spreadsheetml.sheet\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(xlsx(isbns));
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/process/excel"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        return expectOk(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private void awaitCompletion(String jobId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/status/" + jobId))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String event = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("event:")) {
+                    event = line.substring(6).trim();
+                } else if (line.startsWith("data:")) {
+                    if ("complete".equals(event)) {
+                        return;
+                    }
+                    if ("error".equals(event)) {
+                        throw new IOException("Job " + jobId + " failed: " + line.substring(5).trim());
+                    }
+                }
+            }
+        }
+        throw new IOException("Status stream for job " + jobId + " ended before completion");
+    }
+
+    private void download(String jobId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/download/" + jobId)).GET().build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IOException("Download of job " + jobId + " returned " + response.statusCode());
+        }
+    }
+
+    private void sampleHeap() {
+        long used;
+        if (args.containsKey("target")) {
+            used = remoteHeapUsed();
+        } else {
+            used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+        peakHeapBytes.accumulateAndGet(used, Math::max);
+    }
+
+    private long remoteHeapUsed() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/actuator/metrics/jvm.memory.used?tag=area:heap")).GET().build();
+            JsonNode metric = objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            return metric.path("measurements").path(0).path("value").asLong();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private void report(int jobs, long totalIsbns, long elapsedMillis, AladinStubServer stub) {
+        List<Long> latencies = new ArrayList<>(jobLatenciesMillis);
+        Collections.sort(latencies);
+        double seconds = elapsedMillis / 1000.0;
+
+        System.out.println();
+        System.out.println("===== Load test result =====");
+        System.out.printf("Jobs             : %d submitted, %d completed, %d failed%n", jobs, latencies.size(), failedJobs.get());
+        System.out.printf("Elapsed          : %.1f s%n", seconds);
+        System.out.printf("Throughput       : %.1f ISBN/s, %.2f jobs/min%n", totalIsbns / seconds, latencies.size() / seconds * 60);
+        System.out.printf("Job latency p50  : %d ms%n", percentile(latencies, 0.50));
+        System.out.printf("Job latency p99  : %d ms%n", percentile(latencies, 0.99));
+        System.out.printf("Job latency max  : %d ms%n", latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1));
+        System.out.printf("Peak heap        : %.1f MB%s%n", peakHeapBytes.get() / 1024.0 / 1024.0,
+                args.containsKey("target") ? "" : " (embedded: includes harness and stub)");
+        if (stub != null) {
+            System.out.printf("Stub requests    : %d (%d rate limited)%n", stub.requests(), stub.rateLimited());
+        }
+        System.out.printf("Lookup stats     : %s%n", fetch("/api/stats/lookups"));
+        System.out.printf("Cache stats      : %s%n", fetch("/api/stats/cache"));
+    }
+
+    private String fetch(String path) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + path)).GET().build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (Exception e) {
+            return "unavailable (" + e.getMessage() + ")";
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static byte[] xlsx(List<String> isbns) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("ISBN");
+            for (int i = 0; i < isbns.size(); i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(isbns.get(i));
+                row.createCell(1).setCellValue("부하 테스트 " + i);
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void writeField(ByteArrayOutputStream body, String boundary, String name, String value) throws IOException {
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String expectOk(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() != 200) {
+            throw new IOException("Submit returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body().trim();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    static String isbn13(long seed) {
+        String body = "979" + String.format("%09d", seed % 1_000_000_000L);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,12 @@
+package com.helper.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bookworm.aladin")
+public class AladinProperties {
+
+    // 부하 테스트 시 로컬 stub(src/loadtest) 주소로 바꿔서 사용
+    private String itemLookupUrl = "https://www.aladin.co.kr/ttb/api/ItemLookUp.aspx";
+}
@@ -1,15 +1,28 @@
 package com.helper.library.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.helper.library.service.InMemoryJobStore;
+import com.helper.library.service.JobStore;
+import com.helper.library.service.SharedFileJobStore;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.client.RestTemplate;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -17,25 +30,70 @@ import java.util.concurrent.Executors;
 public class AppConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
+    public RestTemplate restTemplate(HttpClientProperties httpClientProperties) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(httpClientProperties.getMaxTotal())
+                .setMaxConnPerRoute(httpClientProperties.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(httpClientProperties.getConnectTimeout().toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(httpClientProperties.getResponseTimeout().toMillis()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(httpClientProperties.getTimeToLive().toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(httpClientProperties.getValidateAfterInactivity().toMillis()))
+                        .build())
+                .build();
+
         RequestConfig requestConfig = RequestConfig.custom()
-                .setConnectionRequestTimeout(Timeout.ofMilliseconds(5000))
-                .setResponseTimeout(Timeout.ofMilliseconds(10000))
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(httpClientProperties.getConnectionRequestTimeout().toMillis()))
+                .setResponseTimeout(Timeout.ofMilliseconds(httpClientProperties.getResponseTimeout().toMillis()))
+                .setConnectionKeepAlive(TimeValue.ofMilliseconds(httpClientProperties.getKeepAlive().toMillis()))
                 .build();
 
         CloseableHttpClient httpClient = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
                 .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(httpClientProperties.getIdleEviction().toMillis()))
                 .build();
 
         HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
         return new RestTemplate(factory);
     }
 
+    // XmlMapper 빈이 있으면 Boot 기본 ObjectMapper 가 생성되지 않아 JSON 응답까지 XmlMapper 로 직렬화되므로 직접 등록
+    @Bean
+    @Primary
+    public ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.createXmlMapper(false).build();
+    }
+
     @Bean
     public XmlMapper xmlMapper() {
         return new XmlMapper();
     }
 
+    @Bean
+    public JobStore jobStore(JobProperties jobProperties, StoreProperties storeProperties, ObjectMapper objectMapper) throws IOException {
+        return switch (jobProperties.getStore()) {
+            case MEMORY -> new InMemoryJobStore();
+            case SHARED_FS -> {
+                Path sharedPath = Path.of(jobProperties.getStorePath()).toAbsolutePath().normalize();
+                // 인스턴스별 파일이 공유 볼륨에 있으면 다른 인스턴스의 체크포인트를 이어서 처리하거나 도서 정보 파일을 덮어씀
+                rejectInside(sharedPath, "bookworm.jobs.checkpoint-path", jobProperties.getCheckpointPath());
+                rejectInside(sharedPath, "bookworm.store.path", storeProperties.getPath());
+                yield new SharedFileJobStore(sharedPath, objectMapper);
+            }
+        };
+    }
+
+    private static void rejectInside(Path sharedPath, String property, String path) {
+        Path instancePath = Path.of(path).toAbsolutePath().normalize();
+        if (instancePath.startsWith(sharedPath) || sharedPath.startsWith(instancePath)) {
+            throw new IllegalStateException(property + " (" + instancePath + ") must be outside the shared job store "
+                    + sharedPath + ", each instance needs its own.");
+        }
+    }
+
     @Bean
     public ExecutorService taskExecutor() {
         return Executors.newVirtualThreadPerTaskExecutor();
@@ -0,0 +1,20 @@
+package com.helper.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bookworm.cache")
+public class CacheProperties {
+
+    // 캐시에 보관할 최대 ISBN 수, 초과하면 가장 오래 사용되지 않은 항목부터 제거
+    private int maxEntries = 20_000;
+
+    // 조회에 성공한 도서 정보 보관 기간
+    private Duration ttl = Duration.ofHours(12);
+
+    // "검색 결과 없음" 응답 보관 기간 (오류 응답은 캐시하지 않음)
+    private Duration negativeTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,35 @@
+package com.helper.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bookworm.http")
+public class HttpClientProperties {
+
+    // 커넥션 풀 전체 최대 연결 수
+    private int maxTotal = 64;
+
+    // 호스트(route) 별 최대 연결 수, 알라딘 API 만 호출하므로 사실상 동시 요청 상한
+    private int maxPerRoute = 32;
+
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    // 서버가 Keep-Alive 헤더를 보내지 않을 때 연결을 재사용할 기간
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    // 이 기간 이상 사용되지 않은 연결은 백그라운드에서 정리
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    // 오래 재사용된 연결도 주기적으로 교체
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    // 이 기간 이상 쉬었던 연결은 재사용 전에 유효성 검사
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
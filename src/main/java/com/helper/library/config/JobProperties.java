@@ -0,0 +1,66 @@
+package com.helper.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties(prefix = "bookworm.jobs")
+public class JobProperties {
+
+    public enum StoreType {
+        MEMORY, SHARED_FS
+    }
+
+    // 동시에 실행할 수 있는 작업 수
+    private int maxConcurrentJobs = 4;
+
+    // 실행을 기다릴 수 있는 작업 수, 초과하면 요청을 거절
+    private int maxQueuedJobs = 50;
+
+    // 끝난 작업(다운로드되지 않은 결과 포함)을 보관하는 기간
+    private Duration finishedJobTtl = Duration.ofMinutes(30);
+
+    // 보관 중인 결과 파일 전체 크기 상한, 초과하면 오래된 결과부터 제거
+    private DataSize maxRetainedResultSize = DataSize.ofMegabytes(512);
+
+    // 만료 작업 정리 주기 (@Scheduled 에서 사용)
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    // 진행률 SSE 이벤트 전송 주기 (@Scheduled 에서 사용)
+    private Duration progressInterval = Duration.ofMillis(500);
+
+    // 상태 조회 연결이 모두 끊긴 뒤 다시 연결되지 않으면 작업을 취소하기까지 기다리는 시간, 새로고침이나 재연결보다 길어야 함
+    private Duration abandonGracePeriod = Duration.ofMinutes(2);
+
+    // 끊긴 연결 확인(keepalive 전송)과 방치된 작업 취소 주기 (@Scheduled 에서 사용)
+    private Duration abandonCheckInterval = Duration.ofSeconds(10);
+
+    // 재시작 후 이어서 처리할 수 있도록 작업 입력과 끝난 행을 디스크에 기록
+    private boolean checkpointEnabled = true;
+
+    // 작업 정보와 결과 파일 보관 방식. 여러 인스턴스를 띄우려면 shared-fs 로 두고 store-path 를 공유 볼륨으로 지정.
+    // checkpoint-path 와 bookworm.store.path 는 인스턴스마다 따로 두고 공유 볼륨 밖에 있어야 함 (시작 시 확인).
+    // 한 머신에서 두 인스턴스 예: --bookworm.jobs.store=shared-fs --bookworm.jobs.store-path=/tmp/bookworm-shared 에
+    // 두 번째 인스턴스만 --server.port=8081 --bookworm.jobs.checkpoint-path=data-2/jobs --bookworm.store.path=data-2/books.log
+    private StoreType store = StoreType.MEMORY;
+
+    // shared-fs 에서 작업 정보와 결과 파일을 두는 디렉터리, 모든 인스턴스가 같은 경로를 봐야 함.
+    // 인스턴스별 파일이 있는 data/ 와 겹치지 않도록 기본값을 따로 둠
+    private String storePath = "shared/jobs";
+
+    // 실행 중인 작업 정보를 JobStore 에 갱신하고, 다른 인스턴스의 작업 상태를 다시 읽는 주기 (@Scheduled 에서 사용)
+    private Duration storeSyncInterval = Duration.ofSeconds(1);
+
+    // JobStore 에 기록하는 인스턴스 이름, 로그에서 작업을 실행한 인스턴스를 구분하는 용도
+    private String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+    // 작업별 체크포인트 파일을 두는 디렉터리. 인스턴스마다 달라야 함 (시작 시 남은 체크포인트를 모두 이어서 처리하므로)
+    private String checkpointPath = "data/jobs";
+
+    // 몇 행마다 체크포인트를 파일에 flush 할지, 비정상 종료 시 이보다 적은 행만 다시 조회
+    private int checkpointEveryRows = 100;
+}
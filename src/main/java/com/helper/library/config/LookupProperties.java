@@ -0,0 +1,18 @@
+package com.helper.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bookworm.lookup")
+public class LookupProperties {
+
+    // 동시에 진행할 수 있는 알라딘 API 조회 수
+    private int maxConcurrency = 8;
+
+    // ttbkey 별 초당 허용 요청 수 (token bucket 충전 속도)
+    private double permitsPerSecond = 10.0;
+
+    // ttbkey 별 순간 허용 요청 수 (token bucket 크기)
+    private int burst = 10;
+}
@@ -0,0 +1,65 @@
+package com.helper.library.config;
+
+import com.helper.library.service.AladinCircuitBreaker;
+import com.helper.library.service.AladinService;
+import com.helper.library.service.BookMetadataStore;
+import com.helper.library.service.IsbnLookupCache;
+import com.helper.library.service.JobRegistry;
+import com.helper.library.service.JobScheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder jobMetrics(JobScheduler jobScheduler, JobRegistry jobRegistry) {
+        return registry -> {
+            Gauge.builder("bookworm.jobs.active", jobScheduler, JobScheduler::runningJobs)
+                    .description("Jobs currently running")
+                    .register(registry);
+            Gauge.builder("bookworm.jobs.queued", jobScheduler, JobScheduler::queueDepth)
+                    .description("Jobs waiting for a free slot")
+                    .register(registry);
+            Gauge.builder("bookworm.jobs.retained.bytes", jobRegistry, jobs -> jobs.stats().retainedBytes())
+                    .description("Size of finished job results kept for download")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("bookworm.jobs.expired", jobRegistry, jobs -> jobs.stats().expiredJobs())
+                    .register(registry);
+            FunctionCounter.builder("bookworm.jobs.evicted", jobRegistry, jobs -> jobs.stats().evictedResults())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder lookupMetrics(IsbnLookupCache isbnLookupCache, AladinService aladinService, BookMetadataStore bookMetadataStore,
+                                     AladinCircuitBreaker circuitBreaker) {
+        return registry -> {
+            Gauge.builder("bookworm.cache.size", isbnLookupCache, cache -> cache.stats().size())
+                    .register(registry);
+            FunctionCounter.builder("bookworm.cache.requests", isbnLookupCache, cache -> cache.stats().hits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("bookworm.cache.requests", isbnLookupCache, cache -> cache.stats().misses())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("bookworm.cache.evictions", isbnLookupCache, cache -> cache.stats().evictions())
+                    .register(registry);
+            FunctionCounter.builder("bookworm.lookups.coalesced", aladinService, service -> service.lookupStats().coalescedLookups())
+                    .register(registry);
+            Gauge.builder("bookworm.store.records", bookMetadataStore, BookMetadataStore::size)
+                    .register(registry);
+            FunctionCounter.builder("bookworm.lookups.retries", aladinService, service -> service.lookupStats().retries())
+                    .register(registry);
+            Gauge.builder("bookworm.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                    .description("Aladin API circuit state (0 closed, 1 open, 2 half-open)")
+                    .register(registry);
+            FunctionCounter.builder("bookworm.circuit.opened", circuitBreaker, AladinCircuitBreaker::openedCount)
+                    .register(registry);
+        };
+    }
+}
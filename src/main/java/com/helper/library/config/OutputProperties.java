@@ -0,0 +1,26 @@
+package com.helper.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bookworm.output")
+public class OutputProperties {
+
+    // 메모리에 유지할 행 수, 초과한 행은 임시 파일로 내려씀
+    private int rowWindowSize = 100;
+
+    // 열 너비 계산에 사용할 앞쪽 데이터 행 수
+    private int widthSampleRows = 200;
+
+    // 열 너비 최대값 (문자 수)
+    private int maxColumnWidth = 60;
+
+    // 결과 파일을 저장할 디렉터리, 비어 있으면 시스템 임시 디렉터리 사용
+    private String tempDir;
+
+    // 결과 스트리밍(/api/results) 응답 하나를 유지할 최대 시간
+    private Duration resultStreamTimeout = Duration.ofHours(1);
+}
@@ -0,0 +1,31 @@
+package com.helper.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "bookworm.resilience")
+public class ResilienceProperties {
+
+    // 일시적인 오류(타임아웃, 5xx, 429, 호출량 제한)일 때 첫 호출을 포함한 최대 시도 횟수
+    private int maxAttempts = 4;
+
+    // 재시도 대기 시간은 initialBackoff * 2^(시도-1) 을 maxBackoff 로 자른 범위 안에서 무작위로 정함
+    private Duration initialBackoff = Duration.ofMillis(500);
+    private Duration maxBackoff = Duration.ofSeconds(10);
+
+    // 재시도할 알라딘 오류 응답 코드 (호출량 제한 등)
+    private List<String> retryableErrorCodes = List.of("10");
+
+    // 최근 circuitWindowSize 번의 호출 중 실패 비율이 임계값 이상이면 circuitOpenDuration 동안 모든 조회를 멈춤
+    private int circuitWindowSize = 20;
+    private int circuitMinimumCalls = 10;
+    private double circuitFailureRateThreshold = 0.5;
+    private Duration circuitOpenDuration = Duration.ofSeconds(30);
+
+    // 한 조회가 차단 해제를 기다리는 최대 시간, 넘으면 실패로 처리
+    private Duration maxPause = Duration.ofMinutes(10);
+}
@@ -0,0 +1,20 @@
+package com.helper.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bookworm.store")
+public class StoreProperties {
+
+    private boolean enabled = true;
+
+    // 도서 정보 append-only 로그 파일 경로 (컨테이너 재배포 후에도 유지되도록 볼륨에 위치시킬 것).
+    // 한 프로세스만 열 수 있으므로 인스턴스를 여러 개 띄우면 인스턴스마다 다른 경로를 지정
+    private String path = "data/books.log";
+
+    // 저장된 도서 정보를 재사용할 최대 기간, 지나면 API 로 다시 조회
+    private Duration maxAge = Duration.ofDays(30);
+}
@@ -0,0 +1,24 @@
+package com.helper.library.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+
+// taskExecutor 빈이 있으면 Boot 가 MVC 비동기용 실행기를 만들지 않으므로 StreamingResponseBody 도 가상 스레드에서 실행되도록 지정
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ExecutorService taskExecutor;
+    private final OutputProperties outputProperties;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(taskExecutor));
+        configurer.setDefaultTimeout(outputProperties.getResultStreamTimeout().toMillis());
+    }
+}
@@ -1,22 +1,38 @@
 package com.helper.library.controller;
 
+import com.helper.library.service.BookColumn;
+import com.helper.library.service.ColumnProjection;
 import com.helper.library.service.ExcelService;
+import com.helper.library.service.IsbnFeed;
+import com.helper.library.service.JobRecord;
+import com.helper.library.service.JobRegistry;
+import com.helper.library.service.JobResultLog;
+import com.helper.library.service.JobRunner;
+import com.helper.library.service.JobStatus;
+import com.helper.library.service.JobStatusRelay;
+import com.helper.library.service.JobStore;
+import com.helper.library.service.ResultStreamService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Locale;
 
 @Slf4j
 @RestController
@@ -25,22 +41,33 @@ import java.util.concurrent.atomic.AtomicReference;
 public class ProcessController {
 
     private final ExcelService excelService;
-    private final Map<String, JobStatus> jobStatuses = new ConcurrentHashMap<>();
-
-    private static class JobStatus {
-        final SseEmitter emitter = new SseEmitter(3600_000L);
-        final AtomicReference<Workbook> result = new AtomicReference<>(null);
-        final AtomicReference<String> error = new AtomicReference<>(null);
-    }
-
-    @PostMapping("/process/text")
-    public ResponseEntity<String> processText(@RequestBody String textData,
-                                              @RequestParam("ttbkey") String ttbkey) {
-        String jobId = UUID.randomUUID().toString();
-        jobStatuses.put(jobId, new JobStatus());
+    private final JobRunner jobRunner;
+    private final JobRegistry jobRegistry;
+    private final JobStore jobStore;
+    private final JobStatusRelay jobStatusRelay;
+    private final ResultStreamService resultStreamService;
+    private final MeterRegistry meterRegistry;
+
+    // 본문을 한 줄씩 읽는 대로 조회에 넘기므로 큰 입력도 본문 전체가 도착하기 전에 처리가 시작됨.
+    // columns 에 열 이름(BookColumn.key)을 쉼표로 나열하면 그 열만 조회하고 출력, 없으면 전체 열.
+    // 폼 본문(curl -d 기본값)은 ttbkey 를 읽을 때 톰캣이 본문을 먼저 소비해서 빈 작업이 되므로 text/plain 만 받음 (그 외는 415)
+    @PostMapping(value = "/process/text", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> processText(HttpServletRequest request,
+                                              @RequestParam("ttbkey") String ttbkey,
+                                              @RequestParam(value = "columns", required = false) String columns) throws IOException {
+        ColumnProjection projection;
+        try {
+            projection = ColumnProjection.parse(columns);
+        } catch (IllegalArgumentException e) {
+            return rejectColumns(e);
+        }
+        String jobId = jobRegistry.create().getJobId();
 
-        List<String> isbns = excelService.parseIsbnFromText(textData);
-        startProcessing(jobId, isbns, ttbkey);
+        IsbnFeed feed = new IsbnFeed();
+        if (!jobRunner.submit(jobId, feed, ttbkey, projection)) {
+            return rejectJob(jobId);
+        }
+        excelService.readIsbnLines(request.getReader(), feed);
 
         return ResponseEntity.ok(jobId);
     }
@@ -49,24 +76,24 @@ public class ProcessController {
     public ResponseEntity<String> processExcel(@RequestParam("file") MultipartFile file,
                                                @RequestParam("isbnColumn") String isbnColumn,
                                                @RequestParam("startRow") int startRow,
-                                               @RequestParam("ttbkey") String ttbkey) {
-        String jobId = UUID.randomUUID().toString();
-        jobStatuses.put(jobId, new JobStatus());
+                                               @RequestParam("ttbkey") String ttbkey,
+                                               @RequestParam(value = "columns", required = false) String columns) {
+        ColumnProjection projection;
+        try {
+            projection = ColumnProjection.parse(columns);
+        } catch (IllegalArgumentException e) {
+            return rejectColumns(e);
+        }
+        String jobId = jobRegistry.create().getJobId();
 
         try {
             List<String> isbns = excelService.parseIsbnFromExcel(file, isbnColumn, startRow);
-            startProcessing(jobId, isbns, ttbkey);
+            if (!jobRunner.submit(jobId, IsbnFeed.of(isbns), ttbkey, projection)) {
+                return rejectJob(jobId);
+            }
         } catch (IOException e) {
             log.error("Error parsing Excel file for job {}", jobId, e);
-            JobStatus status = jobStatuses.get(jobId);
-            status.error.set("엑셀 파일 처리 중 오류가 발생했습니다: " + e.getMessage());
-            try {
-                sendErrorEvent(status, jobId);
-            } catch (IOException sendErrorE) {
-                log.error("Failed to send error SSE event for job {}. Removing job.", jobId, sendErrorE);
-                status.emitter.completeWithError(e);
-                jobStatuses.remove(jobId);
-            }
+            jobRunner.fail(jobId, "엑셀 파일 처리 중 오류가 발생했습니다: " + e.getMessage());
         }
 
         return ResponseEntity.ok(jobId);
@@ -74,8 +101,13 @@ public class ProcessController {
 
     @GetMapping("/status/{jobId}")
     public SseEmitter getStatus(@PathVariable String jobId) {
-        JobStatus status = jobStatuses.get(jobId);
+        JobStatus status = jobRegistry.get(jobId);
         if (status == null) {
+            // 다른 인스턴스에서 실행 중이거나 끝난 작업
+            SseEmitter relayed = jobStatusRelay.follow(jobId);
+            if (relayed != null) {
+                return relayed;
+            }
             log.warn("No job found for ID: {}", jobId);
             SseEmitter emitter = new SseEmitter();
             try {
@@ -86,87 +118,125 @@ public class ProcessController {
             }
             return emitter;
         }
-        return status.emitter;
+        // 새로고침이나 서버 재시작 후 다시 연결해도 현재 진행 상태부터 이어서 받음
+        return status.connect();
     }
 
     @GetMapping("/download/{jobId}")
     public void downloadExcel(@PathVariable String jobId, HttpServletResponse response) throws IOException {
-        JobStatus status = jobStatuses.get(jobId);
-        if (status == null || status.result.get() == null) {
+        JobStatus status = jobRegistry.get(jobId);
+        Path resultFile = status != null ? status.getResult().get() : null;
+        if (status == null) {
+            // 다른 인스턴스에서 끝난 작업은 공유 보관소의 결과 파일을 보냄
+            JobRecord record = jobStore.find(jobId);
+            if (record != null && record.state() == JobRecord.State.COMPLETED) {
+                resultFile = jobStore.resultFile(jobId);
+            }
+        }
+        if (resultFile == null) {
             log.error("Job not found or not complete for download: {}", jobId);
             response.sendError(HttpServletResponse.SC_NOT_FOUND, "결과 파일을 찾을 수 없거나 작업이 완료되지 않았습니다.");
             return;
         }
 
-        Workbook workbook = status.result.get();
         String fileName = "도서_정보_결과_" + jobId.substring(0, 8) + ".xlsx";
         response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setContentLengthLong(Files.size(resultFile));
 
-        workbook.write(response.getOutputStream());
-        workbook.close();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Files.copy(resultFile, response.getOutputStream());
+        sample.stop(meterRegistry.timer("bookworm.workbook.write", "stage", "download"));
 
-        jobStatuses.remove(jobId);
+        // 다른 인스턴스의 작업이면 JobStore 에서 지우고, 그 인스턴스는 다음 동기화 때 자기 쪽 상태를 제거
+        jobRegistry.remove(jobId);
         log.info("Job {} downloaded and removed.", jobId);
     }
 
-    private void startProcessing(String jobId, List<String> isbns, String ttbkey) {
-        log.info("Starting processing for job ID: {} with {} ISBNs", jobId, isbns.size());
-        excelService.createExcelFile(isbns, ttbkey, progress -> {
-            try {
-                sendProgressUpdateEvent(jobStatuses.get(jobId), progress);
-            } catch (IOException e) {
-                log.error("Failed to send progress update for job {}", jobId, e);
-            }
-        }).whenComplete((workbook, throwable) -> handleProcessingCompletion(jobId, workbook, throwable));
+    // 대기 중이거나 실행 중인 작업을 취소. 남은 조회는 보내지 않고 만들던 파일과 작업 상태는 바로 정리
+    @PostMapping("/cancel/{jobId}")
+    public ResponseEntity<String> cancelJob(@PathVariable String jobId) {
+        JobStatus status = jobRegistry.get(jobId);
+        if (status == null) {
+            return requestRemoteCancel(jobId);
+        }
+        if (!jobRunner.cancel(jobId, "requested")) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("이미 끝난 작업입니다.");
+        }
+        return ResponseEntity.ok(jobId);
     }
 
-    private void handleProcessingCompletion(String jobId, Workbook workbook, Throwable throwable) {
-        JobStatus status = jobStatuses.get(jobId);
+    // 끝난 행을 기록되는 대로 NDJSON 또는 CSV 로 보냄. order=completion 이면 끝난 순서대로 행 번호(index)와 함께 보냄.
+    // 연결이 끊기면 이미 받은 행 수를 offset 으로 넘겨 이어서 받음 (CSV 머리글은 offset 이 0 일 때만 보냄)
+    @GetMapping("/results/{jobId}")
+    public ResponseEntity<StreamingResponseBody> streamResults(@PathVariable String jobId,
+                                                               @RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                                               @RequestParam(value = "order", defaultValue = "input") String order,
+                                                               @RequestParam(value = "offset", defaultValue = "0") int offset) {
+        JobStatus status = jobRegistry.get(jobId);
         if (status == null) {
-            return;
+            // 행 기록은 작업을 실행하는 인스턴스에만 있음
+            if (jobStore.find(jobId) != null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            log.warn("No job found for result stream: {}", jobId);
+            return ResponseEntity.notFound().build();
         }
 
-        if (throwable != null) {
-            log.error("Error processing job {}", jobId, throwable);
-            status.error.set("작업 처리 중 오류가 발생했습니다: " + throwable.getMessage());
-            try {
-                sendErrorEvent(status, jobId);
-            } catch (IOException e) {
-                log.error("Failed to send error SSE event for job {}. Removing job.", jobId, e);
-                status.emitter.completeWithError(e);
-                jobStatuses.remove(jobId);
-            }
-        } else {
-            status.result.set(workbook);
-            log.info("Successfully completed job {}", jobId);
+        ResultStreamService.Format resultFormat;
+        JobResultLog.Order resultOrder;
+        try {
+            resultFormat = ResultStreamService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            resultOrder = JobResultLog.Order.valueOf(order.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (offset < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        JobResultLog resultLog = status.getResultLog().get();
+        StreamingResponseBody body = out -> {
+            // 결과를 받는 중이면 상태 조회 연결이 없어도 방치된 작업으로 보지 않음
+            status.getResultStreams().incrementAndGet();
             try {
-                sendCompleteEvent(status, jobId);
-            } catch (IOException e) {
-                log.error("Failed to send complete SSE event for job {}. Removing job.", jobId, e);
-                status.emitter.completeWithError(e);
-                jobStatuses.remove(jobId);
+                int sent = resultStreamService.stream(resultLog, resultOrder, offset, resultFormat, out);
+                log.info("Streamed {} result rows of job {} from offset {}.", sent, jobId, offset);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                status.getResultStreams().decrementAndGet();
             }
-        }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(resultFormat.contentType()))
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(body);
     }
 
-    private void sendErrorEvent(JobStatus status, String jobId) throws IOException {
-        String errorMessage = status.error.get() != null ? status.error.get() : "Unknown error";
-        SseEmitter.SseEventBuilder event = SseEmitter.event().name("error").data(errorMessage);
-        status.emitter.send(event);
-        status.emitter.complete();
-        log.info("Sent error event for job {} and completed emitter.", jobId);
+    // 다른 인스턴스에서 실행 중인 작업은 JobStore 에 취소 요청을 남기고, 실행하는 인스턴스가 확인해서 취소
+    private ResponseEntity<String> requestRemoteCancel(String jobId) {
+        JobRecord record = jobStore.find(jobId);
+        if (record == null) {
+            log.warn("No job found to cancel: {}", jobId);
+            return ResponseEntity.notFound().build();
+        }
+        if (record.isFinished()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("이미 끝난 작업입니다.");
+        }
+        jobStore.requestCancel(jobId);
+        log.info("Requested cancellation of job {} running on instance {}.", jobId, record.owner());
+        return ResponseEntity.accepted().body(jobId);
     }
 
-    private void sendCompleteEvent(JobStatus status, String jobId) throws IOException {
-        SseEmitter.SseEventBuilder event = SseEmitter.event().name("complete").data("100.00");
-        status.emitter.send(event);
-        status.emitter.complete();
-        log.info("Sent complete event for job {} and completed emitter.", jobId);
+    private ResponseEntity<String> rejectColumns(IllegalArgumentException e) {
+        String available = String.join(", ", Arrays.stream(BookColumn.values()).map(BookColumn::key).toList());
+        return ResponseEntity.badRequest().body(e.getMessage() + " (사용할 수 있는 열: " + available + ")");
     }
 
-    private void sendProgressUpdateEvent(JobStatus status, double progress) throws IOException {
-        SseEmitter.SseEventBuilder event = SseEmitter.event().name("progress").data(String.format("%.2f", progress));
-        status.emitter.send(event);
+    private ResponseEntity<String> rejectJob(String jobId) {
+        jobRegistry.remove(jobId);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body("대기 중인 작업이 너무 많습니다. 잠시 후 다시 시도해주세요.");
     }
 }
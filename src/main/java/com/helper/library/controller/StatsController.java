@@ -0,0 +1,34 @@
+package com.helper.library.controller;
+
+import com.helper.library.service.AladinService;
+import com.helper.library.service.IsbnLookupCache;
+import com.helper.library.service.JobRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final IsbnLookupCache isbnLookupCache;
+    private final AladinService aladinService;
+    private final JobRegistry jobRegistry;
+
+    @GetMapping("/cache")
+    public IsbnLookupCache.Stats cacheStats() {
+        return isbnLookupCache.stats();
+    }
+
+    @GetMapping("/lookups")
+    public AladinService.LookupStats lookupStats() {
+        return aladinService.lookupStats();
+    }
+
+    @GetMapping("/jobs")
+    public JobRegistry.Stats jobStats() {
+        return jobRegistry.stats();
+    }
+}
@@ -0,0 +1,184 @@
+package com.helper.library.service;
+
+import com.helper.library.config.ResilienceProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 알라딘 API 가 계속 실패하면 호출을 멈추고(OPEN) 일정 시간 뒤 한 건만 시험 호출(HALF_OPEN)해서 복구 여부를 확인.
+// 차단 중인 조회는 실패로 끝내지 않고 기다리므로 모든 작업이 함께 일시 정지됨.
+// 대기하는 가상 스레드가 캐리어 스레드를 붙잡지 않도록 synchronized 대신 ReentrantLock 사용
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AladinCircuitBreaker {
+
+    private final ResilienceProperties resilienceProperties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final AtomicLong openedCount = new AtomicLong();
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private State state = State.CLOSED;
+    private boolean probeInFlight;
+    private long openUntilNanos;
+
+    // 최근 호출 결과의 원형 버퍼 (true 가 실패)
+    private boolean[] outcomes;
+    private int outcomeCount;
+    private int nextOutcome;
+    private int failureCount;
+
+    // 호출해도 되면 true, 차단이 maxPause 이상 이어지면 false
+    public boolean awaitPermission() throws InterruptedException {
+        long deadline = System.nanoTime() + resilienceProperties.getMaxPause().toNanos();
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (state == State.OPEN && now - openUntilNanos >= 0) {
+                    state = State.HALF_OPEN;
+                    probeInFlight = false;
+                    log.info("Circuit half-open, probing Aladin API.");
+                }
+                if (state == State.CLOSED) {
+                    return true;
+                }
+                if (state == State.HALF_OPEN && !probeInFlight) {
+                    probeInFlight = true;
+                    return true;
+                }
+
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    return false;
+                }
+                long waitNanos = state == State.OPEN ? Math.min(openUntilNanos - now, remaining) : remaining;
+                stateChanged.awaitNanos(waitNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        record(false);
+    }
+
+    public void onFailure() {
+        record(true);
+    }
+
+    // 결과를 판단할 수 없는 경우(중단 등). 시험 호출이었으면 다른 조회가 다시 시험할 수 있게 함
+    public void onIgnored() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && probeInFlight) {
+                probeInFlight = false;
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 차단 해제(시험 호출)까지 남은 시간, 차단 중이 아니면 0
+    public long remainingOpenSeconds() {
+        lock.lock();
+        try {
+            if (state != State.OPEN) {
+                return 0;
+            }
+            return Math.max(0, TimeUnit.NANOSECONDS.toSeconds(openUntilNanos - System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long openedCount() {
+        return openedCount.get();
+    }
+
+    private void record(boolean failure) {
+        lock.lock();
+        try {
+            switch (state) {
+                case HALF_OPEN -> {
+                    probeInFlight = false;
+                    if (failure) {
+                        open();
+                    } else {
+                        log.info("Aladin API recovered, closing circuit.");
+                        state = State.CLOSED;
+                        resetWindow();
+                    }
+                    stateChanged.signalAll();
+                }
+                case CLOSED -> {
+                    addOutcome(failure);
+                    if (outcomeCount >= resilienceProperties.getCircuitMinimumCalls()
+                            && failureCount >= outcomeCount * resilienceProperties.getCircuitFailureRateThreshold()) {
+                        open();
+                    }
+                }
+                // 차단 전에 시작된 호출의 결과는 무시
+                case OPEN -> {
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + resilienceProperties.getCircuitOpenDuration().toNanos();
+        openedCount.incrementAndGet();
+        resetWindow();
+        log.warn("Aladin API is failing, pausing lookups for {}.", resilienceProperties.getCircuitOpenDuration());
+    }
+
+    private void addOutcome(boolean failure) {
+        int windowSize = Math.max(1, resilienceProperties.getCircuitWindowSize());
+        if (outcomes == null || outcomes.length != windowSize) {
+            outcomes = new boolean[windowSize];
+            resetWindow();
+        }
+        if (outcomeCount == windowSize) {
+            if (outcomes[nextOutcome]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[nextOutcome] = failure;
+        if (failure) {
+            failureCount++;
+        }
+        nextOutcome = (nextOutcome + 1) % windowSize;
+    }
+
+    private void resetWindow() {
+        outcomeCount = 0;
+        nextOutcome = 0;
+        failureCount = 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.helper.library.service;
+
+import com.helper.library.config.LookupProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class AladinRateLimiter {
+
+    private final LookupProperties lookupProperties;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public void acquire(String ttbkey) throws InterruptedException {
+        buckets.computeIfAbsent(ttbkey, key -> new TokenBucket(lookupProperties.getPermitsPerSecond(), lookupProperties.getBurst()))
+                .acquire();
+    }
+
+    private static class TokenBucket {
+        private final double capacity;
+        private final double permitsPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(double permitsPerSecond, int burst) {
+            this.capacity = Math.max(1, burst);
+            this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        void acquire() throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+                lastRefillNanos = now;
+                // 토큰이 부족하면 미리 예약(음수)해두고 필요한 시간만큼 락 밖에서 대기
+                tokens -= 1;
+                waitNanos = tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
@@ -1,53 +1,405 @@
 package com.helper.library.service;
 
-import com.fasterxml.jackson.databind.exc.MismatchedInputException;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.helper.library.dto.AladinApiResponseDto;
+import com.helper.library.config.AladinProperties;
+import com.helper.library.config.ResilienceProperties;
 import com.helper.library.dto.AladinItemDto;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AladinService {
 
+    private static final List<String> LOOKUP_OUTCOMES = List.of("found", "empty", "error", "parse_failure", "http_error", "exception");
+
     private final RestTemplate restTemplate;
-    private final XmlMapper xmlMapper;
+    private final AladinProperties aladinProperties;
+    private final AladinXmlParser aladinXmlParser;
+    private final AladinRateLimiter rateLimiter;
+    private final AladinCircuitBreaker circuitBreaker;
+    private final ResilienceProperties resilienceProperties;
+    private final IsbnLookupCache lookupCache;
+    private final BookMetadataStore bookMetadataStore;
+    private final ExecutorService taskExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, SharedLookup> inFlightLookups = new ConcurrentHashMap<>();
+    private final AtomicLong apiCalls = new AtomicLong();
+    private final AtomicLong coalescedLookups = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final Map<String, Timer> lookupTimers;
+
+    public record LookupStats(int inFlight, long apiCalls, long coalescedLookups, long retries,
+                              AladinCircuitBreaker.State circuitState) {
+    }
+
+    // API 호출 한 번의 결과. result 가 null 이면 일시적인 실패라 재시도 대상
+    private record Attempt(LookupResult result, long retryAfterMillis) {
+        static Attempt done(LookupResult result) {
+            return new Attempt(result, 0);
+        }
+
+        static Attempt retry(long retryAfterMillis) {
+            return new Attempt(null, retryAfterMillis);
+        }
+    }
+
+    // 진행 중인 조회 하나를 기다리는 호출들. 호출마다 따로 future 를 주므로 한 호출이 취소해도 다른 호출은 계속 기다리고,
+    // 모든 호출이 취소되면 조회 스레드를 인터럽트해서 재시도, 차단 해제 대기, 호출량 소모를 멈춤
+    private static final class SharedLookup {
+        private final CompletableFuture<LookupResult> result = new CompletableFuture<>();
+        private int waiters;
+        private boolean abandoned;
+        private Thread loader;
+
+        // 이미 모든 호출이 취소되어 멈추는 중이면 null
+        synchronized CompletableFuture<LookupResult> join() {
+            if (abandoned) {
+                return null;
+            }
+            waiters++;
+            CompletableFuture<LookupResult> caller = new CompletableFuture<>();
+            result.whenComplete((lookupResult, throwable) -> {
+                if (throwable != null) {
+                    caller.completeExceptionally(throwable);
+                } else {
+                    caller.complete(lookupResult);
+                }
+            });
+            caller.whenComplete((lookupResult, throwable) -> {
+                if (caller.isCancelled()) {
+                    leave();
+                }
+            });
+            return caller;
+        }
+
+        synchronized boolean isAbandoned() {
+            return abandoned;
+        }
+
+        synchronized void startLoading() {
+            loader = Thread.currentThread();
+        }
+
+        // 멈추려고 보낸 인터럽트가 남아 있으면 지움
+        synchronized void finishLoading() {
+            loader = null;
+            if (abandoned) {
+                Thread.interrupted();
+            }
+        }
+
+        private synchronized void leave() {
+            if (--waiters > 0 || result.isDone()) {
+                return;
+            }
+            abandoned = true;
+            if (loader != null) {
+                loader.interrupt();
+            }
+        }
+    }
+
+    public AladinService(RestTemplate restTemplate, AladinProperties aladinProperties, AladinXmlParser aladinXmlParser,
+                         AladinRateLimiter rateLimiter, AladinCircuitBreaker circuitBreaker, ResilienceProperties resilienceProperties,
+                         IsbnLookupCache lookupCache, BookMetadataStore bookMetadataStore, ExecutorService taskExecutor,
+                         MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.aladinProperties = aladinProperties;
+        this.aladinXmlParser = aladinXmlParser;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.resilienceProperties = resilienceProperties;
+        this.lookupCache = lookupCache;
+        this.bookMetadataStore = bookMetadataStore;
+        this.taskExecutor = taskExecutor;
+        this.meterRegistry = meterRegistry;
+        // 결과 종류별 타이머는 정해져 있으므로 호출마다 등록하지 않고 미리 만들어 둠
+        Map<String, Timer> timers = new HashMap<>();
+        for (String outcome : LOOKUP_OUTCOMES) {
+            timers.put(outcome, Timer.builder("bookworm.aladin.lookup")
+                    .description("Aladin ItemLookUp call latency")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.lookupTimers = Map.copyOf(timers);
+    }
 
     public Optional<AladinItemDto> searchBookByIsbn(String isbn, String ttbkey) {
+        return lookup(isbn, ttbkey).asOptional();
+    }
+
+    public CompletableFuture<Optional<AladinItemDto>> searchBookByIsbnAsync(String isbn, String ttbkey) {
+        return lookupAsync(isbn, ttbkey).thenApply(LookupResult::asOptional);
+    }
+
+    public LookupResult lookup(String isbn, String ttbkey) {
         if (isbn == null || isbn.trim().isEmpty()) {
-            return Optional.empty();
+            return LookupResult.invalid();
         }
-        String url = "https://www.aladin.co.kr/ttb/api/ItemLookUp.aspx?ttbkey=" + ttbkey +
-                     "&itemIdType=ISBN13&ItemId=" + isbn +
-                     "&output=xml&Version=20131101&OptResult=packing,subinfo";
-        try {
-            String response = restTemplate.getForObject(url, String.class);
 
-            if (response != null && response.contains("<error>")) {
-                log.warn("Aladin API returned an error for ISBN {}. Response: {}", isbn, response);
-                return Optional.empty();
+        Optional<IsbnLookupCache.Entry> cached = lookupCache.get(isbn);
+        if (cached.isPresent()) {
+            log.debug("Cache hit for ISBN: {}", isbn);
+            return fromCache(cached.get());
+        }
+        return loadShared(isbn, ttbkey, ColumnProjection.all(), Runnable::run).join();
+    }
+
+    public CompletableFuture<LookupResult> lookupAsync(String isbn, String ttbkey) {
+        return lookupAsync(isbn, ttbkey, ColumnProjection.all());
+    }
+
+    // 캐시에 있으면 즉시 완료된 future 를, 없으면 가상 스레드에서 조회하는 future 를 반환.
+    // 일부 열만 필요하면 그 열에 필요한 옵션만 요청하고 필요한 요소만 읽음
+    public CompletableFuture<LookupResult> lookupAsync(String isbn, String ttbkey, ColumnProjection projection) {
+        if (isbn == null || isbn.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(LookupResult.invalid());
+        }
+
+        Optional<IsbnLookupCache.Entry> cached = lookupCache.get(isbn, projection);
+        if (cached.isPresent()) {
+            log.debug("Cache hit for ISBN: {}", isbn);
+            return CompletableFuture.completedFuture(fromCache(cached.get()));
+        }
+        return loadShared(isbn, ttbkey, projection, taskExecutor);
+    }
+
+    public LookupStats lookupStats() {
+        return new LookupStats(inFlightLookups.size(), apiCalls.get(), coalescedLookups.get(), retries.get(),
+                circuitBreaker.state());
+    }
+
+    private LookupResult fromCache(IsbnLookupCache.Entry entry) {
+        return entry.isNegative() ? LookupResult.notFound(true) : LookupResult.found(entry.item(), true);
+    }
+
+    // 같은 ISBN 조회가 같은 열 목록으로 이미 진행 중이면 새로 호출하지 않고 진행 중인 결과를 함께 기다림.
+    // 반환한 future 를 취소하면 그 호출만 기다리기를 그만두고, 기다리는 호출이 없으면 조회도 멈춤
+    private CompletableFuture<LookupResult> loadShared(String isbn, String ttbkey, ColumnProjection projection, Executor executor) {
+        String key = projection.isAll() ? isbn : isbn + "|" + projection.sourceKey();
+        while (true) {
+            SharedLookup shared = new SharedLookup();
+            SharedLookup existing = inFlightLookups.putIfAbsent(key, shared);
+            if (existing != null) {
+                CompletableFuture<LookupResult> joined = existing.join();
+                if (joined == null) {
+                    // 멈추는 중인 조회는 결과를 내지 않으므로 새로 조회
+                    inFlightLookups.remove(key, existing);
+                    continue;
+                }
+                coalescedLookups.incrementAndGet();
+                log.debug("Joined in-flight lookup for ISBN: {}", isbn);
+                return joined;
             }
 
-            AladinApiResponseDto apiResponse = xmlMapper.readValue(response, AladinApiResponseDto.class);
+            CompletableFuture<LookupResult> caller = shared.join();
+            try {
+                executor.execute(() -> {
+                    shared.startLoading();
+                    try {
+                        shared.result.complete(loadBook(isbn, ttbkey, projection, shared));
+                    } catch (Throwable t) {
+                        shared.result.completeExceptionally(t);
+                    } finally {
+                        inFlightLookups.remove(key, shared);
+                        shared.finishLoading();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlightLookups.remove(key, shared);
+                shared.result.completeExceptionally(e);
+            }
+            return caller;
+        }
+    }
+
+    private LookupResult loadBook(String isbn, String ttbkey, ColumnProjection projection, SharedLookup shared) {
+        Optional<AladinItemDto> stored = bookMetadataStore.get(isbn);
+        if (stored.isPresent()) {
+            log.debug("Found stored book record for ISBN: {}", isbn);
+            lookupCache.putFound(isbn, stored.get());
+            return LookupResult.found(stored.get(), true);
+        }
 
-            if (apiResponse != null && apiResponse.getItem() != null && !apiResponse.getItem().isEmpty()) {
-                log.info("Successfully found book for ISBN: {}", isbn);
-                return Optional.of(apiResponse.getItem().get(0));
+        String optResult = projection.optResult();
+        String url = aladinProperties.getItemLookupUrl() + "?ttbkey=" + ttbkey +
+                     "&itemIdType=ISBN13&ItemId=" + isbn +
+                     "&output=xml&Version=20131101" + (optResult != null ? "&OptResult=" + optResult : "");
+        int maxAttempts = Math.max(1, resilienceProperties.getMaxAttempts());
+        try {
+            for (int attempt = 1; ; attempt++) {
+                if (shared.isAbandoned()) {
+                    log.debug("Stopped looking up ISBN {} because no caller is waiting for it.", isbn);
+                    return LookupResult.failed();
+                }
+                // 알라딘 API 가 계속 실패하는 동안에는 호출하지 않고 대기
+                if (!circuitBreaker.awaitPermission()) {
+                    log.warn("Gave up on ISBN {} while waiting for the Aladin API to recover.", isbn);
+                    return LookupResult.failed();
+                }
+                Attempt outcome = callApi(isbn, ttbkey, url, projection);
+                if (outcome.result() != null) {
+                    return outcome.result();
+                }
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up on ISBN {} after {} attempts.", isbn, attempt);
+                    return LookupResult.failed();
+                }
+                retries.incrementAndGet();
+                Thread.sleep(backoffMillis(attempt, outcome.retryAfterMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (shared.isAbandoned()) {
+                log.debug("Stopped looking up ISBN {} because no caller is waiting for it.", isbn);
             } else {
-                log.warn("No book found for ISBN: {}. The API returned a valid but empty response.", isbn);
-                return Optional.empty();
+                log.warn("Interrupted while looking up ISBN {}.", isbn);
             }
-        } catch (MismatchedInputException e) {
-            log.warn("Failed to parse Aladin API response for ISBN {}. The response might be an error message or malformed XML.", isbn, e);
-        } catch (Exception e) {
+            return LookupResult.failed();
+        }
+    }
+
+    // 타임아웃, 5xx, 429, 호출량 제한 오류, 깨진 응답은 일시적인 실패로 보고 재시도.
+    // 일시적인 실패만 circuit breaker 의 실패로 기록
+    private Attempt callApi(String isbn, String ttbkey, String url, ColumnProjection projection) throws InterruptedException {
+        Timer.Sample sample = null;
+        try {
+            rateLimiter.acquire(ttbkey);
+            apiCalls.incrementAndGet();
+            sample = Timer.start(meterRegistry);
+            AladinXmlParser.Result result = restTemplate.execute(url, HttpMethod.GET, null,
+                    response -> aladinXmlParser.parse(response.getBody(), projection));
+
+            if (result == null) {
+                sample.stop(lookupTimer("parse_failure"));
+                circuitBreaker.onFailure();
+                log.warn("Aladin API returned no response for ISBN {}.", isbn);
+                return Attempt.retry(0);
+            }
+            sample.stop(lookupTimer(switch (result.kind()) {
+                case FOUND -> "found";
+                case NOT_FOUND -> "empty";
+                case ERROR -> "error";
+                case MALFORMED -> "parse_failure";
+            }));
+
+            return switch (result.kind()) {
+                case FOUND -> {
+                    circuitBreaker.onSuccess();
+                    log.info("Successfully found book for ISBN: {}", isbn);
+                    lookupCache.putFound(isbn, result.item(), projection);
+                    // 저장소는 다른 작업에서도 쓰므로 모든 열을 읽은 도서 정보만 저장
+                    if (projection.isAll()) {
+                        bookMetadataStore.put(isbn, result.item());
+                    }
+                    yield Attempt.done(LookupResult.found(result.item(), false));
+                }
+                case NOT_FOUND -> {
+                    circuitBreaker.onSuccess();
+                    log.warn("No book found for ISBN: {}. The API returned a valid but empty response.", isbn);
+                    lookupCache.putNotFound(isbn);
+                    yield Attempt.done(LookupResult.notFound(false));
+                }
+                case ERROR -> {
+                    if (resilienceProperties.getRetryableErrorCodes().contains(result.errorCode())) {
+                        circuitBreaker.onFailure();
+                        log.warn("Aladin API throttled lookup for ISBN {}. Error {}: {}", isbn, result.errorCode(), result.message());
+                        yield Attempt.retry(0);
+                    }
+                    // 잘못된 ttbkey 등은 재시도해도 같은 결과이고, 다른 키로는 조회될 수 있으므로 캐시하지 않음
+                    circuitBreaker.onSuccess();
+                    log.warn("Aladin API returned an error for ISBN {}. Error {}: {}", isbn, result.errorCode(), result.message());
+                    yield Attempt.done(LookupResult.failed());
+                }
+                case MALFORMED -> {
+                    circuitBreaker.onFailure();
+                    log.warn("Failed to parse Aladin API response for ISBN {}. The response might be an error message or malformed XML: {}", isbn, result.message());
+                    yield Attempt.retry(0);
+                }
+            };
+        } catch (InterruptedException e) {
+            circuitBreaker.onIgnored();
+            throw e;
+        } catch (HttpStatusCodeException e) {
+            stopTimer(sample, "http_error");
+            if (e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                circuitBreaker.onFailure();
+                log.warn("Aladin API responded {} for ISBN {}.", e.getStatusCode().value(), isbn);
+                return Attempt.retry(retryAfterMillis(e));
+            }
+            circuitBreaker.onSuccess();
+            log.error("Aladin API rejected the request for ISBN {} with status {}.", isbn, e.getStatusCode().value());
+            return Attempt.done(LookupResult.failed());
+        } catch (ResourceAccessException e) {
+            stopTimer(sample, "exception");
+            // 조회를 멈추려고 인터럽트해서 연결이 끊긴 경우는 알라딘 장애가 아님
+            if (Thread.currentThread().isInterrupted()) {
+                circuitBreaker.onIgnored();
+                throw new InterruptedException("Lookup for ISBN " + isbn + " was interrupted");
+            }
+            circuitBreaker.onFailure();
+            log.warn("I/O error while calling Aladin API for ISBN {}: {}", isbn, e.getMessage());
+            return Attempt.retry(0);
+        } catch (RuntimeException e) {
+            stopTimer(sample, "exception");
+            circuitBreaker.onIgnored();
             log.error("An unexpected error occurred while calling Aladin API for ISBN {}.", isbn, e);
+            return Attempt.done(LookupResult.failed());
         }
-        return Optional.empty();
+    }
+
+    // 지수 백오프에 jitter 를 더해 여러 조회가 동시에 다시 몰리지 않게 함. Retry-After 가 더 길면 그 값을 따름
+    private long backoffMillis(int attempt, long retryAfterMillis) {
+        long initial = resilienceProperties.getInitialBackoff().toMillis();
+        long max = resilienceProperties.getMaxBackoff().toMillis();
+        long ceiling = Math.min(max, initial << Math.min(attempt - 1, 20));
+        long half = ceiling / 2;
+        long jittered = half + ThreadLocalRandom.current().nextLong(half + 1);
+        return Math.max(jittered, retryAfterMillis);
+    }
+
+    private long retryAfterMillis(HttpStatusCodeException e) {
+        HttpHeaders headers = e.getResponseHeaders();
+        String retryAfter = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return Math.min(Long.parseLong(retryAfter.trim()) * 1000, resilienceProperties.getMaxBackoff().toMillis());
+        } catch (NumberFormatException ignored) {
+            return 0;
+        }
+    }
+
+    private void stopTimer(Timer.Sample sample, String outcome) {
+        if (sample != null) {
+            sample.stop(lookupTimer(outcome));
+        }
+    }
+
+    private Timer lookupTimer(String outcome) {
+        return lookupTimers.get(outcome);
     }
 }
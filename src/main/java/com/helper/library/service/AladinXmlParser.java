@@ -0,0 +1,161 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.helper.library.dto.AladinItemDto;
+import com.helper.library.dto.AladinSubInfoDto;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+// ItemLookUp 응답을 문자열로 읽지 않고 스트림에서 바로 파싱, 첫 번째 item 에서 사용하는 필드만 바인딩.
+// 열 목록이 주어지면 그 열에 필요하지 않은 요소는 문자열로 만들지 않고 건너뜀
+@Component
+public class AladinXmlParser {
+
+    private final XMLInputFactory inputFactory;
+
+    public enum Kind {
+        FOUND, NOT_FOUND, ERROR, MALFORMED
+    }
+
+    public record Result(Kind kind, AladinItemDto item, String errorCode, String message) {
+        static Result found(AladinItemDto item) {
+            return new Result(Kind.FOUND, item, null, null);
+        }
+
+        static Result notFound() {
+            return new Result(Kind.NOT_FOUND, null, null, null);
+        }
+
+        static Result error(String errorCode, String message) {
+            return new Result(Kind.ERROR, null, errorCode, message);
+        }
+
+        static Result malformed(String message) {
+            return new Result(Kind.MALFORMED, null, null, message);
+        }
+    }
+
+    public AladinXmlParser(XmlMapper xmlMapper) {
+        this.inputFactory = xmlMapper.getFactory().getXMLInputFactory();
+    }
+
+    public Result parse(InputStream inputStream) {
+        return parse(inputStream, ColumnProjection.all());
+    }
+
+    public Result parse(InputStream inputStream, ColumnProjection projection) {
+        if (inputStream == null) {
+            return Result.malformed("Empty response body");
+        }
+        XMLStreamReader reader = null;
+        try {
+            reader = inputFactory.createXMLStreamReader(inputStream);
+            reader.nextTag();
+            if ("error".equals(reader.getLocalName())) {
+                return readError(reader);
+            }
+
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    if ("item".equals(reader.getLocalName())) {
+                        return Result.found(readItem(reader, projection));
+                    }
+                    skipElement(reader);
+                }
+            }
+            return Result.notFound();
+        } catch (XMLStreamException | RuntimeException e) {
+            return Result.malformed(e.getMessage());
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+    }
+
+    private AladinItemDto readItem(XMLStreamReader reader, ColumnProjection projection) throws XMLStreamException {
+        AladinItemDto item = new AladinItemDto();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = reader.getLocalName();
+            if (!projection.reads(name)) {
+                skipElement(reader);
+                continue;
+            }
+            switch (name) {
+                case "title" -> item.setTitle(reader.getElementText());
+                case "author" -> item.setAuthor(reader.getElementText());
+                case "pubDate" -> item.setPubDate(reader.getElementText());
+                case "description" -> item.setDescription(reader.getElementText());
+                case "isbn" -> item.setIsbn(reader.getElementText());
+                case "isbn13" -> item.setIsbn13(reader.getElementText());
+                case "priceSales" -> item.setPriceSales(parseInt(reader.getElementText()));
+                case "priceStandard" -> item.setPriceStandard(parseInt(reader.getElementText()));
+                case "cover" -> item.setCover(reader.getElementText());
+                case "categoryId" -> item.setCategoryId(parseLong(reader.getElementText()));
+                case "categoryName" -> item.setCategoryName(reader.getElementText());
+                case "publisher" -> item.setPublisher(reader.getElementText());
+                case "link" -> item.setLink(reader.getElementText());
+                case "subInfo" -> item.setSubInfo(readSubInfo(reader));
+                default -> skipElement(reader);
+            }
+        }
+        return item;
+    }
+
+    private AladinSubInfoDto readSubInfo(XMLStreamReader reader) throws XMLStreamException {
+        AladinSubInfoDto subInfo = new AladinSubInfoDto();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "subTitle" -> subInfo.setSubTitle(reader.getElementText());
+                case "originalTitle" -> subInfo.setOriginalTitle(reader.getElementText());
+                case "itemPage" -> subInfo.setItemPage(parseInt(reader.getElementText()));
+                default -> skipElement(reader);
+            }
+        }
+        return subInfo;
+    }
+
+    private Result readError(XMLStreamReader reader) throws XMLStreamException {
+        String errorCode = "";
+        String errorMessage = "";
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "errorCode" -> errorCode = reader.getElementText();
+                case "errorMessage" -> errorMessage = reader.getElementText();
+                default -> skipElement(reader);
+            }
+        }
+        return Result.error(errorCode.trim(), errorMessage);
+    }
+
+    // 현재 START_ELEMENT 부터 짝이 맞는 END_ELEMENT 까지 건너뜀
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private int parseInt(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? 0 : Integer.parseInt(trimmed);
+    }
+
+    private long parseLong(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? 0 : Long.parseLong(trimmed);
+    }
+}
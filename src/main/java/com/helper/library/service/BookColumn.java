@@ -0,0 +1,123 @@
+package com.helper.library.service;
+
+import com.helper.library.dto.AladinItemDto;
+
+import java.util.function.Function;
+
+// 결과 행의 열 정의. 엑셀 파일과 결과 스트리밍(NDJSON/CSV)이 같은 값을 쓰도록 도서 정보에서 열 값을 만드는 규칙을 한곳에 둠.
+// source 는 열 값을 만드는 데 필요한 알라딘 응답의 item 하위 요소 이름
+public enum BookColumn {
+
+    ISBN13("isbn13", "ISBN13", "isbn13", AladinItemDto::getIsbn13),
+    TITLE("title", "제목", "title", AladinItemDto::getTitle),
+    MAIN_TITLE("mainTitle", "주제목", "title", item -> splitTitle(item.getTitle(), true)),
+    SUB_TITLE("subTitle", "부제목", "title", item -> splitTitle(item.getTitle(), false)),
+    AUTHOR("author", "저자", "author", AladinItemDto::getAuthor),
+    PRIMARY_AUTHOR("primaryAuthor", "지은이", "author", item -> primaryAuthor(item.getAuthor())),
+    PUBLISHER("publisher", "출판사", "publisher", AladinItemDto::getPublisher),
+    PUB_DATE("pubDate", "출판일", "pubDate", AladinItemDto::getPubDate),
+    DESCRIPTION("description", "상세설명", "description", AladinItemDto::getDescription),
+    PRICE_SALES("priceSales", "판매가", "priceSales", AladinItemDto::getPriceSales),
+    PRICE_STANDARD("priceStandard", "정가", "priceStandard", AladinItemDto::getPriceStandard),
+    COVER("cover", "표지 이미지 URL", "cover", item -> item.getCover() != null ? item.getCover().replace("coversum", "cover500") : null),
+    LINK("link", "상품링크", "link", item -> productLink(item.getLink())),
+    ITEM_ID("itemId", "알라딘 ItemId", "link", item -> aladinItemId(item.getLink())),
+    ITEM_PAGE("itemPage", "페이지 수", "subInfo", item -> item.getSubInfo() != null ? item.getSubInfo().getItemPage() : null),
+    CATEGORY_NAME("categoryName", "카테고리 체인", "categoryName", AladinItemDto::getCategoryName),
+    CATEGORY("category", "카테고리", "categoryName", item -> lastCategory(item.getCategoryName()));
+
+    private final String key;
+    private final String header;
+    private final String source;
+    private final Function<AladinItemDto, Object> extractor;
+
+    BookColumn(String key, String header, String source, Function<AladinItemDto, Object> extractor) {
+        this.key = key;
+        this.header = header;
+        this.source = source;
+        this.extractor = extractor;
+    }
+
+    // key 로 찾음, 대소문자 구분 없음. 없으면 null
+    public static BookColumn fromKey(String key) {
+        for (BookColumn column : values()) {
+            if (column.key.equalsIgnoreCase(key)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    // NDJSON 필드 이름
+    public String key() {
+        return key;
+    }
+
+    // 엑셀/CSV 머리글
+    public String header() {
+        return header;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    // 문자열 또는 숫자, 값이 없으면 null
+    public Object valueOf(AladinItemDto item) {
+        return extractor.apply(item);
+    }
+
+    private static String splitTitle(String title, boolean main) {
+        if (title == null) {
+            return "";
+        }
+        int dashIndex = title.indexOf(" - ");
+        if (dashIndex == -1) {
+            return main ? title.trim() : "";
+        }
+        return main ? title.substring(0, dashIndex).trim() : title.substring(dashIndex + 3).trim();
+    }
+
+    private static String primaryAuthor(String author) {
+        if (author == null) {
+            return "";
+        }
+        int jiEunYiIndex = author.indexOf(" (지은이)");
+        if (jiEunYiIndex != -1) {
+            return author.substring(0, jiEunYiIndex).trim();
+        }
+        return author.trim(); // (지은이) 가 없으면 저자 그대로 사용
+    }
+
+    private static String productLink(String link) {
+        if (link == null || link.isEmpty()) {
+            return link;
+        }
+        int partnerIndex = link.indexOf("&partner=");
+        return partnerIndex != -1 ? link.substring(0, partnerIndex) : link;
+    }
+
+    private static String aladinItemId(String link) {
+        if (link == null || link.isEmpty()) {
+            return "";
+        }
+        int itemIdStartIndex = link.indexOf("ItemId=");
+        if (itemIdStartIndex == -1) {
+            return "";
+        }
+        itemIdStartIndex += "ItemId=".length();
+        int itemIdEndIndex = link.indexOf("&", itemIdStartIndex);
+        if (itemIdEndIndex == -1) {
+            itemIdEndIndex = link.length();
+        }
+        return link.substring(itemIdStartIndex, itemIdEndIndex);
+    }
+
+    private static String lastCategory(String categoryName) {
+        if (categoryName == null || categoryName.isEmpty()) {
+            return "";
+        }
+        int lastGreaterThanIndex = categoryName.lastIndexOf('>');
+        return lastGreaterThanIndex != -1 ? categoryName.substring(lastGreaterThanIndex + 1).trim() : categoryName.trim();
+    }
+}
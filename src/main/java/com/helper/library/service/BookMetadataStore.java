@@ -0,0 +1,254 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.config.StoreProperties;
+import com.helper.library.dto.AladinItemDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+// ISBN13 별 도서 정보를 보관하는 append-only 로그.
+// 레코드 형식: [레코드 길이 int][저장 시각 long][ISBN 길이 byte][ISBN][CRC32 int][JSON]
+// 시작 시 레코드 헤더만 읽어 ISBN -> 파일 위치 인덱스를 메모리에 구성한다.
+// 쓰기 위치를 프로세스 안에서만 관리하고 시작 시 잘라내기/압축도 하므로, 한 파일은 한 프로세스만 열 수 있게 <path>.lock 을 잠근다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookMetadataStore {
+
+    private static final int HEADER_BYTES = Long.BYTES + Byte.BYTES;
+    private static final long COMPACTION_MIN_BYTES = 1024 * 1024;
+
+    private final StoreProperties storeProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    private FileLock processLock;
+    private long writePosition;
+
+    private record IndexEntry(long offset, int length, long writtenAt) {
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!storeProperties.isEnabled()) {
+            return;
+        }
+        Path path = Path.of(storeProperties.getPath());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        // 압축하면 파일이 새 파일로 바뀌므로 데이터 파일이 아닌 옆의 잠금 파일을 잠금
+        processLock = lockExclusively(path.resolveSibling(path.getFileName() + ".lock"));
+
+        long started = System.currentTimeMillis();
+        long validLength = loadIndex(path);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            log.warn("Truncating {} trailing bytes of incomplete record in {}", channel.size() - validLength, path);
+            channel.truncate(validLength);
+        }
+        writePosition = validLength;
+        log.info("Loaded {} book records from {} in {} ms", index.size(), path, System.currentTimeMillis() - started);
+
+        compactIfNeeded(path);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+            channel = null;
+        }
+        if (processLock != null) {
+            processLock.channel().close();
+            processLock = null;
+        }
+    }
+
+    // 다른 프로세스가 이미 같은 파일을 쓰고 있으면 두 프로세스의 레코드가 서로 덮어써지므로 시작하지 않음
+    private static FileLock lockExclusively(Path lockFile) throws IOException {
+        FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Book store " + lockFile + " is locked by another process. "
+                    + "Give each instance its own bookworm.store.path.");
+        }
+        return lock;
+    }
+
+    public Optional<AladinItemDto> get(String isbn13) {
+        FileChannel readChannel = channel;
+        IndexEntry entry = index.get(isbn13);
+        if (readChannel == null || entry == null || isExpired(entry)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(readRecord(readChannel, entry));
+        } catch (IOException e) {
+            log.warn("Failed to read stored book record for ISBN {}", isbn13, e);
+            index.remove(isbn13, entry);
+            return Optional.empty();
+        }
+    }
+
+    public void put(String isbn13, AladinItemDto item) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(item);
+            byte[] isbnBytes = isbn13.getBytes(StandardCharsets.US_ASCII);
+            long writtenAt = System.currentTimeMillis();
+            int length = HEADER_BYTES + isbnBytes.length + Integer.BYTES + json.length;
+
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length);
+            buffer.putInt(length)
+                    .putLong(writtenAt)
+                    .put((byte) isbnBytes.length)
+                    .put(isbnBytes)
+                    .putInt(crc(json))
+                    .put(json)
+                    .flip();
+
+            synchronized (this) {
+                if (channel == null) {
+                    return;
+                }
+                long offset = writePosition;
+                while (buffer.hasRemaining()) {
+                    writePosition += channel.write(buffer, writePosition);
+                }
+                index.put(isbn13, new IndexEntry(offset, length, writtenAt));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to store book record for ISBN {}", isbn13, e);
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private boolean isExpired(IndexEntry entry) {
+        return System.currentTimeMillis() - entry.writtenAt() > storeProperties.getMaxAge().toMillis();
+    }
+
+    private AladinItemDto readRecord(FileChannel readChannel, IndexEntry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+        long position = entry.offset() + Integer.BYTES;
+        while (buffer.hasRemaining()) {
+            if (readChannel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of store file");
+            }
+        }
+        buffer.flip();
+        buffer.position(Long.BYTES);
+        int isbnLength = buffer.get();
+        buffer.position(buffer.position() + isbnLength);
+        int expectedCrc = buffer.getInt();
+        byte[] json = new byte[buffer.remaining()];
+        buffer.get(json);
+        if (crc(json) != expectedCrc) {
+            throw new IOException("Checksum mismatch in store record at offset " + entry.offset());
+        }
+        return objectMapper.readValue(json, AladinItemDto.class);
+    }
+
+    // 유효한 마지막 레코드 끝 위치를 반환
+    private long loadIndex(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long fileSize = Files.size(path);
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            while (offset + Integer.BYTES <= fileSize) {
+                int length = in.readInt();
+                if (length < HEADER_BYTES || offset + Integer.BYTES + length > fileSize) {
+                    break;
+                }
+                long writtenAt = in.readLong();
+                int isbnLength = in.readUnsignedByte();
+                byte[] isbnBytes = in.readNBytes(isbnLength);
+                in.skipNBytes(length - HEADER_BYTES - isbnLength);
+
+                index.put(new String(isbnBytes, StandardCharsets.US_ASCII), new IndexEntry(offset, length, writtenAt));
+                offset += Integer.BYTES + length;
+            }
+        } catch (EOFException e) {
+            log.warn("Store file {} ends with a partial record at offset {}", path, offset);
+        }
+        return offset;
+    }
+
+    // 같은 ISBN 이 여러 번 기록되어 살아있는 레코드가 절반 이하이면 살아있는 레코드만 새 파일로 옮김
+    private synchronized void compactIfNeeded(Path path) throws IOException {
+        long liveBytes = index.values().stream().mapToLong(entry -> Integer.BYTES + entry.length()).sum();
+        if (writePosition < COMPACTION_MIN_BYTES || liveBytes * 2 > writePosition) {
+            return;
+        }
+
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Map<String, IndexEntry> newIndex = new ConcurrentHashMap<>();
+        long newPosition = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, IndexEntry> e : index.entrySet()) {
+                IndexEntry entry = e.getValue();
+                if (isExpired(entry)) {
+                    continue;
+                }
+                long size = Integer.BYTES + entry.length();
+                long transferred = 0;
+                while (transferred < size) {
+                    transferred += channel.transferTo(entry.offset() + transferred, size - transferred, out);
+                }
+                newIndex.put(e.getKey(), new IndexEntry(newPosition, entry.length(), entry.writtenAt()));
+                newPosition += size;
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        index.putAll(newIndex);
+        log.info("Compacted {} from {} to {} bytes", path, writePosition, newPosition);
+        writePosition = newPosition;
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
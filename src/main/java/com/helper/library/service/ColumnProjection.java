@@ -0,0 +1,83 @@
+package com.helper.library.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// 작업에서 출력할 열 목록. 그 열들에 필요한 알라딘 응답 요소만 읽고, 필요한 OptResult 옵션만 요청하게 함.
+// 전체 열이면 sources 가 null 이고 기존처럼 응답의 모든 요소를 읽음
+public record ColumnProjection(List<BookColumn> columns, Set<String> sources) {
+
+    private static final ColumnProjection ALL = new ColumnProjection(List.of(BookColumn.values()), null);
+
+    public static ColumnProjection all() {
+        return ALL;
+    }
+
+    // 쉼표로 구분한 열 이름(BookColumn.key), 비어 있으면 전체 열
+    public static ColumnProjection parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return ALL;
+        }
+        List<BookColumn> columns = new ArrayList<>();
+        for (String name : spec.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            BookColumn column = BookColumn.fromKey(trimmed);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown column: " + trimmed);
+            }
+            if (!columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+        return of(columns);
+    }
+
+    public static ColumnProjection of(List<BookColumn> columns) {
+        if (columns == null || columns.isEmpty() || columns.equals(ALL.columns)) {
+            return ALL;
+        }
+        Set<String> sources = new HashSet<>();
+        for (BookColumn column : columns) {
+            sources.add(column.source());
+        }
+        return new ColumnProjection(List.copyOf(columns), sources.size() == distinctSources() ? null : Set.copyOf(sources));
+    }
+
+    public boolean isAll() {
+        return sources == null;
+    }
+
+    // 응답의 item 하위 요소를 읽어야 하는지
+    public boolean reads(String element) {
+        return sources == null || sources.contains(element);
+    }
+
+    // 부가 정보(subInfo)는 페이지 수 열에만 쓰이므로 그 열이 있을 때만 요청
+    public String optResult() {
+        return reads("subInfo") ? "packing,subinfo" : null;
+    }
+
+    // 이 열 목록으로 조회한 도서 정보로 other 의 열도 만들 수 있는지
+    public boolean covers(ColumnProjection other) {
+        return isAll() || (!other.isAll() && sources.containsAll(other.sources));
+    }
+
+    // 같은 응답 요소를 읽는 조회끼리 같은 값, 전체 열이면 빈 문자열
+    public String sourceKey() {
+        return isAll() ? "" : String.join(",", new TreeSet<>(sources));
+    }
+
+    private static int distinctSources() {
+        Set<String> sources = new HashSet<>();
+        for (BookColumn column : BookColumn.values()) {
+            sources.add(column.source());
+        }
+        return sources.size();
+    }
+}
@@ -0,0 +1,105 @@
+package com.helper.library.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 형식(따옴표로 감싼 필드, 필드 안의 줄바꿈 포함) CSV 에서 지정한 열의 값만 추출
+public final class CsvColumnReader {
+
+    private CsvColumnReader() {
+    }
+
+    public static List<String> readColumn(InputStream inputStream, int columnIndex, int startRowIndex) throws IOException {
+        List<String> values = new ArrayList<>();
+        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            StringBuilder field = new StringBuilder();
+            String rowValue = null;
+            int rowIndex = 0;
+            int column = 0;
+            boolean quoted = false;
+            boolean firstChar = true;
+            boolean rowHasContent = false;
+
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (firstChar) {
+                    firstChar = false;
+                    if (c == '\uFEFF') {
+                        continue;
+                    }
+                }
+
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else if (column == columnIndex) {
+                        field.append((char) c);
+                    }
+                    continue;
+                }
+
+                switch (c) {
+                    case '"' -> {
+                        quoted = true;
+                        rowHasContent = true;
+                    }
+                    case ',' -> {
+                        if (column == columnIndex) {
+                            rowValue = field.toString();
+                        }
+                        field.setLength(0);
+                        column++;
+                        rowHasContent = true;
+                    }
+                    case '\r' -> {
+                    }
+                    case '\n' -> {
+                        if (column == columnIndex) {
+                            rowValue = field.toString();
+                        }
+                        if (rowIndex >= startRowIndex) {
+                            values.add(rowValue != null ? rowValue.trim() : "");
+                        }
+                        field.setLength(0);
+                        rowValue = null;
+                        column = 0;
+                        rowIndex++;
+                        rowHasContent = false;
+                    }
+                    default -> {
+                        if (column == columnIndex) {
+                            field.append((char) c);
+                        }
+                        rowHasContent = true;
+                    }
+                }
+            }
+
+            // 마지막 줄에 줄바꿈이 없는 경우
+            if (rowHasContent || !field.isEmpty()) {
+                if (column == columnIndex) {
+                    rowValue = field.toString();
+                }
+                if (rowIndex >= startRowIndex) {
+                    values.add(rowValue != null ? rowValue.trim() : "");
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -1,39 +1,94 @@
 package com.helper.library.service;
 
+import com.helper.library.config.OutputProperties;
 import com.helper.library.dto.AladinItemDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellReference;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.concurrent.Future;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ExcelService {
 
-    private final AladinService aladinService;
+    private final IsbnLookupEngine isbnLookupEngine;
     private final ExecutorService taskExecutor;
+    private final OutputProperties outputProperties;
+    private final MeterRegistry meterRegistry;
 
     public List<String> parseIsbnFromExcel(MultipartFile file, String isbnColumn, int startRow) throws IOException {
+        int isbnColIndex = CellReference.convertColStringToIndex(isbnColumn.trim().toUpperCase(Locale.ROOT));
+        int startRowIndex = Math.max(0, startRow - 1);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String source;
+        List<String> isbns;
+        if (isCsv(file)) {
+            source = "csv";
+            try (InputStream inputStream = file.getInputStream()) {
+                isbns = CsvColumnReader.readColumn(inputStream, isbnColIndex, startRowIndex);
+            }
+        } else if (isXlsx(file)) {
+            source = "xlsx";
+            Path uploaded = Files.createTempFile("bookworm-upload-", ".xlsx");
+            try {
+                file.transferTo(uploaded);
+                isbns = XlsxColumnReader.readColumn(uploaded, isbnColIndex, startRowIndex);
+            } finally {
+                Files.deleteIfExists(uploaded);
+            }
+        } else {
+            source = "xls";
+            isbns = parseIsbnFromLegacyExcel(file, isbnColIndex, startRowIndex);
+        }
+        sample.stop(meterRegistry.timer("bookworm.parse", "source", source));
+        log.info("Parsed {} ISBNs from uploaded file {}.", isbns.size(), file.getOriginalFilename());
+        return isbns;
+    }
+
+    private boolean isCsv(MultipartFile file) {
+        String fileName = file.getOriginalFilename();
+        return (fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".csv"))
+                || "text/csv".equalsIgnoreCase(file.getContentType());
+    }
+
+    private boolean isXlsx(MultipartFile file) throws IOException {
+        try (InputStream inputStream = FileMagic.prepareToCheckMagic(file.getInputStream())) {
+            return FileMagic.valueOf(inputStream) == FileMagic.OOXML;
+        }
+    }
+
+    // .xls 는 이벤트 기반 리더를 지원하지 않으므로 기존 방식대로 워크북을 열어 읽음
+    private List<String> parseIsbnFromLegacyExcel(MultipartFile file, int isbnColIndex, int startRowIndex) throws IOException {
         List<String> isbns = new ArrayList<>();
+        DecimalFormat numberFormat = new DecimalFormat("0");
         try (InputStream inputStream = file.getInputStream();
              Workbook workbook = WorkbookFactory.create(inputStream)) {
             Sheet sheet = workbook.getSheetAt(0);
-            int isbnColIndex = CellReference.convertColStringToIndex(isbnColumn);
 
-            for (int i = startRow - 1; i <= sheet.getLastRowNum(); i++) {
+            for (int i = startRowIndex; i <= sheet.getLastRowNum(); i++) {
                 Row row = sheet.getRow(i);
                 String isbn = "";
                 if (row != null) {
@@ -42,90 +97,196 @@ public class ExcelService {
                         if (cell.getCellType() == CellType.STRING) {
                             isbn = cell.getStringCellValue().trim();
                         } else if (cell.getCellType() == CellType.NUMERIC) {
-                            isbn = new java.text.DecimalFormat("0").format(cell.getNumericCellValue()).trim();
+                            isbn = numberFormat.format(cell.getNumericCellValue()).trim();
                         }
                     }
                 }
                 isbns.add(isbn);
             }
         }
-        log.info("Parsed {} ISBNs from Excel file.", isbns.size());
         return isbns;
     }
 
-    public List<String> parseIsbnFromText(String text) {
-        if (text == null) {
-            return new ArrayList<>();
+    // 본문 전체를 문자열로 만들지 않고 한 줄씩 읽어 feed 에 넣음. 조회는 첫 줄이 들어오는 즉시 시작됨
+    public void readIsbnLines(Reader reader, IsbnFeed feed) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (BufferedReader lines = new BufferedReader(reader)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                feed.add(line.trim());
+            }
+            feed.close();
+        } catch (IOException | RuntimeException e) {
+            feed.fail(e);
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("bookworm.parse", "source", "text"));
         }
-        return Arrays.stream(text.split("\r?\n", -1))
-                .map(String::trim)
-                .collect(Collectors.toList());
+        log.info("Read {} ISBN lines from request body.", feed.size());
     }
 
-    public CompletableFuture<Workbook> createExcelFile(List<String> isbns, String ttbkey, Consumer<Double> progressCallback) {
-        return CompletableFuture.supplyAsync(() -> {
-            Workbook workbook = new XSSFWorkbook();
-            Sheet sheet = workbook.createSheet("도서 정보");
-            createHeaderRow(sheet);
+    public CompletableFuture<Path> createExcelFile(List<String> isbns, String ttbkey, JobProgress progress) {
+        return createExcelFile(IsbnFeed.of(isbns), ttbkey, ColumnProjection.all(), progress, JobCheckpoint.none(), JobResultLog.none());
+    }
 
-            int total = isbns.size();
-            if (total == 0) {
-                sheet.createRow(1);
-                return workbook;
+    // 체크포인트에 이미 끝난 행이 있으면 그 결과로 행을 채우고 나머지 행부터 조회.
+    // feed 가 아직 열려 있으면 들어오는 대로 행을 만들고, 전체 건수는 입력이 끝날 때 확정됨.
+    // 끝난 행은 완료 순서대로 resultLog 에도 기록해서 결과 스트리밍이 파일 완성 전에 행을 내보낼 수 있게 함.
+    // 행에는 projection 의 열만 씀
+    public CompletableFuture<Path> createExcelFile(IsbnFeed feed, String ttbkey, ColumnProjection projection, JobProgress progress,
+                                                   JobCheckpoint checkpoint, JobResultLog resultLog) {
+        CompletableFuture<Path> result = new CompletableFuture<>();
+        Future<?> task = taskExecutor.submit(() -> {
+            try {
+                Path resultFile = buildResultFile(feed, ttbkey, projection, progress, checkpoint, resultLog);
+                if (!result.complete(resultFile)) {
+                    // 파일을 쓰는 사이에 작업이 취소됨
+                    Files.deleteIfExists(resultFile);
+                }
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
             }
+        });
+        // 작업이 취소되면 결과를 기다리는 스레드를 인터럽트해서 남은 ISBN 조회를 멈추고 워크북을 바로 해제
+        result.whenComplete((resultFile, throwable) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
 
-            int rowNum = 1;
-            AtomicInteger completedCount = new AtomicInteger(0);
+    private Path buildResultFile(IsbnFeed feed, String ttbkey, ColumnProjection projection, JobProgress progress,
+                                 JobCheckpoint checkpoint, JobResultLog resultLog) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(outputProperties.getRowWindowSize());
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("도서 정보");
+            String[] headers = getHeader(projection);
+            createHeaderRow(sheet, headers);
+            int[] columnWidths = new int[headers.length];
+            sampleColumnWidths(sheet.getRow(0), columnWidths);
 
-            for (String isbn : isbns) {
-                try {
-                    Optional<AladinItemDto> itemOpt;
-                    // ISBN이 유효한 경우에만 API 요청 진행
-                    final boolean isValidIsbn = isbn != null && isbn.matches("^\\d{13}$");
+            Timer rowBuildTimer = meterRegistry.timer("bookworm.row.build");
+            progress.start(feed.size());
+            List<LookupResult> restored = checkpoint.restoredResults();
+            int offset = Math.min(restored.size(), feed.size());
+            for (int i = 0; i < offset; i++) {
+                writeResultRow(sheet, i + 1, feed.get(i), restored.get(i), projection, columnWidths, rowBuildTimer);
+                progress.recordRestored(restored.get(i));
+                resultLog.append(i, feed.get(i), restored.get(i));
+            }
+            if (offset > 0) {
+                log.info("Restored {} of {} rows from checkpoint.", offset, feed.size());
+            }
 
-                    if (isValidIsbn) {
-                        itemOpt = aladinService.searchBookByIsbn(isbn, ttbkey);
-                    } else {
-                        itemOpt = Optional.empty();
-                    }
+            isbnLookupEngine.lookupInOrder(feed, offset, ttbkey, projection, (index, isbn, result) -> {
+                progress.updateTotal(feed.size());
+                writeResultRow(sheet, index + 1, isbn, result, projection, columnWidths, rowBuildTimer);
+                progress.record(result);
+                checkpoint.append(result);
+            }, resultLog::append);
+            // 파일을 쓰기 전에 스트림이 끝나도록 먼저 닫음, 실패한 경우는 finally 에서 닫음
+            resultLog.finish();
+            progress.updateTotal(feed.size());
+            checkpoint.close();
+            if (feed.size() == 0) {
+                sheet.createRow(1);
+            }
 
-                    Row row = sheet.createRow(rowNum++);
-                    itemOpt.ifPresent(item -> populateRowWithData(row, item));
+            for (int i = 0; i < columnWidths.length; i++) {
+                int width = Math.min(columnWidths[i] + 2, outputProperties.getMaxColumnWidth());
+                sheet.setColumnWidth(i, width * 256);
+            }
 
-                    if (itemOpt.isEmpty()) {
-                        row.createCell(0).setCellValue(isbn);
-                    }
-                } catch (Exception e) {
-                    log.error("Error processing ISBN: {}", isbn, e);
-                    sheet.createRow(rowNum++).createCell(0).setCellValue(isbn);
-                } finally {
-                    int completed = completedCount.incrementAndGet();
-                    double progress = (double) completed / total * 100;
-                    progressCallback.accept(progress);
-
-                    final boolean wasApiCalled = isbn != null && isbn.matches("^\\d{13}$");
-                    if (wasApiCalled) {
-                        try {
-                            Thread.sleep(100);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            log.warn("Interrupted during sleep", ie);
+            Timer.Sample writeSample = Timer.start(meterRegistry);
+            Path resultFile = writeToTempFile(workbook);
+            writeSample.stop(meterRegistry.timer("bookworm.workbook.write", "stage", "file"));
+            return resultFile;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            resultLog.finish();
+            workbook.dispose();
+        }
+    }
+
+    // 마지막 열에 행별 조회 결과를 표시해서 검색 결과가 없는 행과 조회에 실패한(다시 시도할) 행을 구분
+    private void writeResultRow(Sheet sheet, int rowNum, String isbn, LookupResult result, ColumnProjection projection,
+                                int[] columnWidths, Timer rowBuildTimer) {
+        Row row = sheet.createRow(rowNum);
+        // 도서 정보가 없는 행은 ISBN13 열에 입력한 ISBN 을 그대로 표시.
+        // ISBN13 열을 고르지 않았으면 조회 결과 옆의 입력 ISBN 열에 모든 행의 입력값을 표시해서 어느 행인지 알 수 있게 함
+        int isbnColumn = projection.columns().indexOf(BookColumn.ISBN13);
+        try {
+            result.asOptional().ifPresentOrElse(item -> rowBuildTimer.record(() -> populateRowWithData(row, item, projection)),
+                    () -> {
+                        if (isbnColumn >= 0) {
+                            row.createCell(isbnColumn).setCellValue(isbn);
                         }
-                    }
+                    });
+        } catch (Exception e) {
+            log.error("Error processing ISBN: {}", isbn, e);
+            for (int i = row.getLastCellNum() - 1; i >= 0; i--) {
+                Cell cell = row.getCell(i);
+                if (cell != null && i != isbnColumn) {
+                    row.removeCell(cell);
                 }
             }
+            if (isbnColumn >= 0) {
+                row.createCell(isbnColumn).setCellValue(isbn);
+            }
+        } finally {
+            row.createCell(projection.columns().size()).setCellValue(statusLabel(result.status()));
+            if (isbnColumn < 0) {
+                row.createCell(projection.columns().size() + 1).setCellValue(isbn);
+            }
+            if (rowNum <= outputProperties.getWidthSampleRows()) {
+                sampleColumnWidths(row, columnWidths);
+            }
+        }
+    }
+
+    private Path writeToTempFile(SXSSFWorkbook workbook) throws IOException {
+        Path file = outputProperties.getTempDir() == null || outputProperties.getTempDir().isBlank()
+                ? Files.createTempFile("bookworm-", ".xlsx")
+                : Files.createTempFile(Files.createDirectories(Path.of(outputProperties.getTempDir())), "bookworm-", ".xlsx");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            workbook.write(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
 
-            for (int i = 0; i < getHeader().length; i++) {
-                sheet.autoSizeColumn(i);
+    // autoSizeColumn 은 전체 행을 메모리에 유지해야 하므로 앞쪽 일부 행의 글자 수로 열 너비를 정함
+    private void sampleColumnWidths(Row row, int[] columnWidths) {
+        for (Cell cell : row) {
+            int column = cell.getColumnIndex();
+            if (column >= columnWidths.length) {
+                continue;
             }
+            int width = switch (cell.getCellType()) {
+                case STRING -> displayWidth(cell.getStringCellValue());
+                case NUMERIC -> Long.toString((long) cell.getNumericCellValue()).length();
+                default -> 0;
+            };
+            columnWidths[column] = Math.max(columnWidths[column], width);
+        }
+    }
 
-            return workbook;
-        }, taskExecutor);
+    private int displayWidth(String value) {
+        int width = 0;
+        for (int i = 0; i < value.length(); i++) {
+            // 한글 등 전각 문자는 두 칸으로 계산
+            width += value.charAt(i) >= 0x1100 ? 2 : 1;
+        }
+        return width;
     }
 
-    private void createHeaderRow(Sheet sheet) {
+    private void createHeaderRow(Sheet sheet, String[] headers) {
         Row headerRow = sheet.createRow(0);
-        String[] headers = getHeader();
         Workbook workbook = sheet.getWorkbook();
         CellStyle headerStyle = workbook.createCellStyle();
         Font font = workbook.createFont();
@@ -139,96 +300,45 @@ public class ExcelService {
         }
     }
 
-    private void populateRowWithData(Row row, AladinItemDto item) {
-        row.createCell(0).setCellValue(item.getIsbn13());
-        row.createCell(1).setCellValue(item.getTitle());
-
-        String title = item.getTitle();
-        String mainTitle = "";
-        String subTitle = "";
-        if (title != null) {
-            int dashIndex = title.indexOf(" - ");
-            if (dashIndex != -1) {
-                mainTitle = title.substring(0, dashIndex).trim();
-                subTitle = title.substring(dashIndex + 3).trim();
-            } else {
-                mainTitle = title.trim();
-            }
-        }
-        row.createCell(2).setCellValue(mainTitle);
-        row.createCell(3).setCellValue(subTitle);
-
-        row.createCell(4).setCellValue(item.getAuthor());
+    // JMH 벤치마크(src/jmh)에서 직접 호출하므로 package-private
+    void populateRowWithData(Row row, AladinItemDto item) {
+        populateRowWithData(row, item, ColumnProjection.all());
+    }
 
-        String author = item.getAuthor();
-        String primaryAuthor = "";
-        if (author != null) {
-            int jiEunYiIndex = author.indexOf(" (지은이)");
-            if (jiEunYiIndex != -1) {
-                primaryAuthor = author.substring(0, jiEunYiIndex).trim();
+    private void populateRowWithData(Row row, AladinItemDto item, ColumnProjection projection) {
+        List<BookColumn> columns = projection.columns();
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = columns.get(i).valueOf(item);
+            if (value instanceof Number number) {
+                row.createCell(i).setCellValue(number.doubleValue());
+            } else if (value != null) {
+                row.createCell(i).setCellValue(value.toString());
             } else {
-                primaryAuthor = author.trim(); // (지은이) 가 없으면 주제목에 제목 그대로 사용
+                row.createCell(i).setBlank();
             }
         }
-        row.createCell(5).setCellValue(primaryAuthor);
-
-        row.createCell(6).setCellValue(item.getPublisher());
-        row.createCell(7).setCellValue(item.getPubDate());
-        row.createCell(8).setCellValue(item.getDescription());
-        row.createCell(9).setCellValue(item.getPriceSales());
-        row.createCell(10).setCellValue(item.getPriceStandard());
-        String coverImageUrl = item.getCover();
-        if (coverImageUrl != null) {
-            coverImageUrl = coverImageUrl.replace("coversum", "cover500");
-        }
-        row.createCell(11).setCellValue(coverImageUrl);
-        String originalLink = item.getLink();
-        String processedLink = originalLink;
-        String aladinItemId = "";
-
-        if (originalLink != null && !originalLink.isEmpty()) {
-            int itemIdStartIndex = originalLink.indexOf("ItemId=");
-            if (itemIdStartIndex != -1) {
-                itemIdStartIndex += "ItemId=".length();
-                int itemIdEndIndex = originalLink.indexOf("&", itemIdStartIndex);
-                if (itemIdEndIndex == -1) {
-                    itemIdEndIndex = originalLink.length();
-                }
-                aladinItemId = originalLink.substring(itemIdStartIndex, itemIdEndIndex);
-            }
+    }
 
-            int partnerIndex = originalLink.indexOf("&partner=");
-            if (partnerIndex != -1) {
-                processedLink = originalLink.substring(0, partnerIndex);
-            }
-        }
-        row.createCell(12).setCellValue(processedLink);
-        row.createCell(13).setCellValue(aladinItemId);
+    private String statusLabel(LookupResult.Status status) {
+        return switch (status) {
+            case FOUND -> "조회 성공";
+            case NOT_FOUND -> "검색 결과 없음";
+            case FAILED -> "조회 실패 (다시 시도 필요)";
+            case INVALID -> "잘못된 ISBN";
+        };
+    }
 
-        if (item.getSubInfo() != null) {
-            row.createCell(14).setCellValue(item.getSubInfo().getItemPage());
+    private String[] getHeader(ColumnProjection projection) {
+        List<BookColumn> columns = projection.columns();
+        boolean inputColumn = !columns.contains(BookColumn.ISBN13);
+        String[] headers = new String[columns.size() + (inputColumn ? 2 : 1)];
+        for (int i = 0; i < columns.size(); i++) {
+            headers[i] = columns.get(i).header();
         }
-        row.createCell(15).setCellValue(item.getCategoryName());
-
-        String categoryName = item.getCategoryName();
-        if (categoryName != null && !categoryName.isEmpty()) {
-            int lastGreaterThanIndex = categoryName.lastIndexOf('>');
-            if (lastGreaterThanIndex != -1) {
-                String lastPart = categoryName.substring(lastGreaterThanIndex + 1).trim();
-                row.createCell(16).setCellValue(lastPart);
-            } else {
-                row.createCell(16).setCellValue(categoryName.trim());
-            }
-        } else {
-            row.createCell(16).setCellValue("");
+        headers[columns.size()] = "조회 결과";
+        if (inputColumn) {
+            headers[columns.size() + 1] = "입력 ISBN";
         }
+        return headers;
     }
-
-    private String[] getHeader() {
-        return new String[]{ 
-                "ISBN13", "제목", "주제목", "부제목", "저자", "지은이", "출판사", "출판일", "상세설명",
-                "판매가", "정가", "표지 이미지 URL", "상품링크", "알라딘 ItemId", "페이지 수",
-                "카테고리 체인", "카테고리"
-        };
-    }
-}
\ No newline at end of file
+}
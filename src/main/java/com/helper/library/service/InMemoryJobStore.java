@@ -0,0 +1,82 @@
+package com.helper.library.service;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 인스턴스 하나로 실행할 때 사용 (기본값). 결과 파일은 만든 위치 그대로 둠
+public class InMemoryJobStore implements JobStore {
+
+    private final Map<String, JobRecord> records = new ConcurrentHashMap<>();
+    private final Map<String, Path> results = new ConcurrentHashMap<>();
+    private final Map<String, Long> watched = new ConcurrentHashMap<>();
+    private final Set<String> cancelRequests = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void create(JobRecord record) {
+        records.put(record.jobId(), record);
+    }
+
+    @Override
+    public boolean update(JobRecord record) {
+        return records.replace(record.jobId(), record) != null;
+    }
+
+    @Override
+    public JobRecord find(String jobId) {
+        return records.get(jobId);
+    }
+
+    @Override
+    public Path putResult(String jobId, Path resultFile) {
+        results.put(jobId, resultFile);
+        return resultFile;
+    }
+
+    @Override
+    public Path resultFile(String jobId) {
+        return results.get(jobId);
+    }
+
+    @Override
+    public void delete(String jobId) {
+        records.remove(jobId);
+        results.remove(jobId);
+        watched.remove(jobId);
+        cancelRequests.remove(jobId);
+    }
+
+    @Override
+    public List<String> expire(long cutoff) {
+        List<String> expired = records.values().stream()
+                .filter(record -> record.updatedAt() < cutoff)
+                .map(JobRecord::jobId)
+                .toList();
+        expired.forEach(this::delete);
+        return expired;
+    }
+
+    @Override
+    public void markWatched(String jobId) {
+        watched.put(jobId, System.currentTimeMillis());
+    }
+
+    @Override
+    public long watchedAt(String jobId) {
+        return watched.getOrDefault(jobId, 0L);
+    }
+
+    @Override
+    public void requestCancel(String jobId) {
+        if (records.containsKey(jobId)) {
+            cancelRequests.add(jobId);
+        }
+    }
+
+    @Override
+    public boolean isCancelRequested(String jobId) {
+        return cancelRequests.contains(jobId);
+    }
+}
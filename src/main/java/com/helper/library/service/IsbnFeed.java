@@ -0,0 +1,137 @@
+package com.helper.library.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// 작업 입력 ISBN 목록. 요청 본문을 읽는 쪽이 한 줄씩 추가하고, 조회 쪽은 본문이 끝나기 전에도 추가되는 대로 가져감.
+// 파일 업로드나 재시작 후 재개처럼 목록이 이미 있으면 of() 로 닫힌 feed 를 만듦
+public class IsbnFeed {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final List<String> isbns;
+    private final List<Consumer<List<String>>> closeListeners = new ArrayList<>();
+    private boolean closed;
+    private Throwable failure;
+
+    public IsbnFeed() {
+        this.isbns = new ArrayList<>();
+    }
+
+    private IsbnFeed(List<String> isbns) {
+        this.isbns = isbns;
+        this.closed = true;
+    }
+
+    public static IsbnFeed of(List<String> isbns) {
+        return new IsbnFeed(isbns);
+    }
+
+    public void add(String isbn) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("ISBN feed is already closed");
+            }
+            isbns.add(isbn);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 입력이 모두 들어옴
+    public void close() {
+        List<Consumer<List<String>>> listeners;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            listeners = List.copyOf(closeListeners);
+            closeListeners.clear();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        listeners.forEach(listener -> listener.accept(isbns));
+    }
+
+    // 요청 본문을 끝까지 읽지 못함, 조회 쪽에서는 다음 ISBN 을 기다리다 예외가 발생
+    public void fail(Throwable cause) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            failure = cause;
+            closed = true;
+            closeListeners.clear();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 입력이 정상적으로 끝나면 전체 목록으로 호출, 이미 끝났으면 바로 호출
+    public void whenClosed(Consumer<List<String>> listener) {
+        lock.lock();
+        try {
+            if (!closed) {
+                closeListeners.add(listener);
+                return;
+            }
+            if (failure != null) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        listener.accept(isbns);
+    }
+
+    // index 번째 ISBN 을 반환. 아직 들어오지 않았으면 기다리고, 입력이 끝나서 없으면 null
+    public String await(int index) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                if (index < isbns.size()) {
+                    return isbns.get(index);
+                }
+                if (failure != null) {
+                    throw new IllegalStateException("ISBN input ended unexpectedly", failure);
+                }
+                if (closed) {
+                    return null;
+                }
+                changed.await(1, TimeUnit.SECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 이미 들어온 index 번째 ISBN
+    public String get(int index) {
+        lock.lock();
+        try {
+            return isbns.get(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return isbns.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.helper.library.service;
+
+import com.helper.library.config.CacheProperties;
+import com.helper.library.dto.AladinItemDto;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class IsbnLookupCache {
+
+    private final CacheProperties cacheProperties;
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    // projection 은 item 을 조회할 때 읽은 열 목록, 일부 열만 읽은 도서 정보는 그 열들을 요청할 때만 사용
+    public record Entry(AladinItemDto item, long expiresAtNanos, ColumnProjection projection) {
+        public boolean isNegative() {
+            return item == null;
+        }
+
+        public boolean covers(ColumnProjection requested) {
+            return isNegative() || projection.covers(requested);
+        }
+    }
+
+    public record Stats(int size, int maxEntries, long hits, long misses, long evictions, long expirations) {
+    }
+
+    public IsbnLookupCache(CacheProperties cacheProperties) {
+        this.cacheProperties = cacheProperties;
+        int maxEntries = cacheProperties.getMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<Entry> get(String isbn13) {
+        return get(isbn13, ColumnProjection.all());
+    }
+
+    public Optional<Entry> get(String isbn13, ColumnProjection projection) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(isbn13);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() <= 0) {
+                entries.remove(isbn13);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+        }
+        if (entry == null || !entry.covers(projection)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(entry);
+    }
+
+    public void putFound(String isbn13, AladinItemDto item) {
+        putFound(isbn13, item, ColumnProjection.all());
+    }
+
+    public void putFound(String isbn13, AladinItemDto item, ColumnProjection projection) {
+        put(isbn13, new Entry(item, System.nanoTime() + cacheProperties.getTtl().toNanos(), projection));
+    }
+
+    public void putNotFound(String isbn13) {
+        put(isbn13, new Entry(null, System.nanoTime() + cacheProperties.getNegativeTtl().toNanos(), ColumnProjection.all()));
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(size, cacheProperties.getMaxEntries(), hits.get(), misses.get(), evictions.get(), expirations.get());
+    }
+
+    private void put(String isbn13, Entry entry) {
+        if (cacheProperties.getMaxEntries() <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(isbn13, entry);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.helper.library.service;
+
+import com.helper.library.config.LookupProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IsbnLookupEngine {
+
+    private final AladinService aladinService;
+    private final ExecutorService taskExecutor;
+    private final LookupProperties lookupProperties;
+
+    @FunctionalInterface
+    public interface LookupListener {
+        void onResult(int index, String isbn, LookupResult result);
+    }
+
+    private record Pending(int index, String isbn, CompletableFuture<LookupResult> result) {
+    }
+
+    private static final Pending END = new Pending(-1, null, null);
+
+    // 작업이 끝나기 전에 멈추면 진행 중인 조회를 취소해서, 다른 작업이 기다리지 않는 조회는 재시도와 호출량 소모를 멈추게 함
+    private static final class Dispatched {
+        private final Set<CompletableFuture<LookupResult>> lookups = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled;
+
+        void add(CompletableFuture<LookupResult> lookup) {
+            lookups.add(lookup);
+            // cancelAll 이 목록을 훑은 뒤에 추가된 조회
+            if (cancelled) {
+                lookup.cancel(true);
+            }
+        }
+
+        void remove(CompletableFuture<LookupResult> lookup) {
+            lookups.remove(lookup);
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        void cancelAll() {
+            cancelled = true;
+            for (CompletableFuture<LookupResult> lookup : lookups) {
+                lookup.cancel(true);
+            }
+        }
+    }
+
+    private static final LookupListener IGNORE = (index, isbn, result) -> {
+    };
+
+    public void lookupInOrder(List<String> isbns, String ttbkey, LookupListener listener) {
+        lookupInOrder(IsbnFeed.of(isbns), 0, ttbkey, listener);
+    }
+
+    public void lookupInOrder(IsbnFeed feed, int fromIndex, String ttbkey, LookupListener listener) {
+        lookupInOrder(feed, fromIndex, ttbkey, ColumnProjection.all(), listener, IGNORE);
+    }
+
+    // 조회는 제한된 동시성으로 병렬 진행하고, 결과는 호출 스레드에서 입력 순서대로 listener 에 전달.
+    // feed 에 ISBN 이 추가되는 대로 조회하므로 입력이 모두 들어오기 전에도 처리가 시작됨.
+    // onCompleted 는 조회가 끝나는 즉시 완료 순서대로 조회 스레드에서 호출되며, 같은 행이 listener 에 전달되기 전에 끝남.
+    // projection 에 없는 열에 필요한 응답 요소는 요청하거나 읽지 않음
+    public void lookupInOrder(IsbnFeed feed, int fromIndex, String ttbkey, ColumnProjection projection,
+                              LookupListener listener, LookupListener onCompleted) {
+        BlockingQueue<Pending> pending = new LinkedBlockingQueue<>();
+        Dispatched dispatched = new Dispatched();
+        Future<?> dispatcher = taskExecutor.submit(() -> dispatch(feed, fromIndex, ttbkey, projection, pending, dispatched, onCompleted));
+        try {
+            while (true) {
+                Pending next = pending.take();
+                if (next == END) {
+                    break;
+                }
+                // join 은 인터럽트에 반응하지 않으므로 작업 취소 시 바로 멈추도록 get 으로 기다림
+                LookupResult result;
+                try {
+                    result = next.result().get();
+                } catch (ExecutionException e) {
+                    throw new CompletionException(e.getCause());
+                }
+                listener.onResult(next.index(), next.isbn(), result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for lookup results");
+        } finally {
+            dispatcher.cancel(true);
+            dispatched.cancelAll();
+        }
+    }
+
+    private void dispatch(IsbnFeed feed, int fromIndex, String ttbkey, ColumnProjection projection, BlockingQueue<Pending> pending,
+                          Dispatched dispatched, LookupListener onCompleted) {
+        Semaphore inFlight = new Semaphore(Math.max(1, lookupProperties.getMaxConcurrency()));
+        // 같은 작업 안에서 중복된 ISBN 은 처음 나온 행의 조회 결과를 공유
+        Map<String, CompletableFuture<LookupResult>> firstByIsbn = new HashMap<>();
+        int duplicates = 0;
+        CompletableFuture<LookupResult> result = null;
+        try {
+            for (int index = fromIndex; ; index++) {
+                String raw = feed.await(index);
+                if (raw == null) {
+                    break;
+                }
+                result = new CompletableFuture<>();
+                pending.add(new Pending(index, raw, result));
+                int row = index;
+
+                // ISBN이 유효한 경우에만 API 요청 진행
+                String isbn = IsbnNormalizer.normalize(raw);
+                if (isbn == null) {
+                    complete(result, row, raw, LookupResult.invalid(), onCompleted);
+                    continue;
+                }
+
+                CompletableFuture<LookupResult> first = firstByIsbn.putIfAbsent(isbn, result);
+                if (first != null) {
+                    duplicates++;
+                    CompletableFuture<LookupResult> duplicate = result;
+                    first.whenComplete((lookupResult, throwable) -> {
+                        if (throwable != null) {
+                            duplicate.completeExceptionally(throwable);
+                        } else {
+                            complete(duplicate, row, raw, lookupResult.reused(), onCompleted);
+                        }
+                    });
+                    continue;
+                }
+
+                inFlight.acquire();
+                CompletableFuture<LookupResult> rowResult = result;
+                CompletableFuture<LookupResult> lookup = aladinService.lookupAsync(isbn, ttbkey, projection);
+                dispatched.add(lookup);
+                lookup.whenComplete((lookupResult, throwable) -> {
+                    inFlight.release();
+                    dispatched.remove(lookup);
+                    if (dispatched.isCancelled()) {
+                        // 작업이 멈춰서 더 이상 결과를 받지 않음, 취소된 행을 실패로 기록하지 않음
+                        rowResult.cancel(false);
+                    } else if (throwable != null) {
+                        log.error("Error processing ISBN: {}", isbn, throwable);
+                        complete(rowResult, row, raw, LookupResult.failed(), onCompleted);
+                    } else {
+                        complete(rowResult, row, raw, lookupResult, onCompleted);
+                    }
+                });
+            }
+            if (duplicates > 0) {
+                log.info("Collapsed {} duplicate ISBNs into {} lookups.", duplicates, firstByIsbn.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Lookup dispatch interrupted.");
+            if (result != null) {
+                result.complete(LookupResult.failed());
+            }
+        } catch (RuntimeException e) {
+            // 입력을 끝까지 받지 못했거나 조회를 시작하지 못함, 호출 스레드에서 예외로 전달
+            CompletableFuture<LookupResult> failure = new CompletableFuture<>();
+            failure.completeExceptionally(e);
+            pending.add(new Pending(-1, null, failure));
+        } finally {
+            pending.add(END);
+        }
+    }
+
+    // 입력 순서 쪽에서 행을 받기 전에 완료 알림이 끝나도록 future 보다 먼저 호출
+    private static void complete(CompletableFuture<LookupResult> future, int index, String isbn, LookupResult result,
+                                 LookupListener onCompleted) {
+        try {
+            onCompleted.onResult(index, isbn, result);
+        } catch (RuntimeException e) {
+            log.warn("Completion listener failed for row {}", index, e);
+        }
+        future.complete(result);
+    }
+}
@@ -0,0 +1,76 @@
+package com.helper.library.service;
+
+// 하이픈/공백이 섞인 ISBN-13, ISBN-10 을 체크섬까지 검증해서 13자리 숫자 문자열로 정규화
+public final class IsbnNormalizer {
+
+    private IsbnNormalizer() {
+    }
+
+    // 유효하지 않으면 null. 이미 정규화된 입력은 새 문자열을 만들지 않고 그대로 반환
+    public static String normalize(String raw) {
+        if (raw == null) {
+            return null;
+        }
+
+        char[] digits = new char[13];
+        int count = 0;
+        boolean separators = false;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (count == 13) {
+                    return null;
+                }
+                digits[count++] = c;
+            } else if (c == '-' || c == ' ' || c == '\t' || c == '\u00A0') {
+                separators = true;
+            } else if ((c == 'X' || c == 'x') && count == 9) {
+                // ISBN-10 의 체크 문자 X 는 마지막 자리에만 올 수 있음
+                digits[count++] = 'X';
+            } else {
+                return null;
+            }
+        }
+
+        if (count == 13) {
+            if (digits[12] == 'X' || checkDigit13(digits) != digits[12]) {
+                return null;
+            }
+            return separators || raw.length() != 13 ? new String(digits) : raw;
+        }
+        if (count == 10 && isValidIsbn10(digits)) {
+            // 978 접두어를 붙이고 체크 숫자를 다시 계산
+            System.arraycopy(digits, 0, digits, 3, 9);
+            digits[0] = '9';
+            digits[1] = '7';
+            digits[2] = '8';
+            digits[12] = checkDigit13(digits);
+            return new String(digits);
+        }
+        return null;
+    }
+
+    private static boolean isValidIsbn10(char[] digits) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = digits[i];
+            if (c == 'X' && i != 9) {
+                return false;
+            }
+            int value = c == 'X' ? 10 : c - '0';
+            sum += value * (10 - i);
+        }
+        return sum % 11 == 0;
+    }
+
+    private static char checkDigit13(char[] digits) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            if (digits[i] == 'X') {
+                return 0;
+            }
+            sum += (digits[i] - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+}
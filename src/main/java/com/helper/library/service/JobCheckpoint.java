@@ -0,0 +1,156 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.dto.AladinItemDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// 작업 하나의 체크포인트. 입력(ttbkey, ISBN 목록)은 <jobId>.job 에 한 번 쓰고,
+// 입력 순서대로 끝난 행의 조회 결과를 <jobId>.rows 에 이어 쓴다. 기록된 행 수가 곧 재개할 위치.
+// 행 레코드 형식: [레코드 길이 int][CRC32 int][상태 byte][cached byte][도서 JSON]
+@Slf4j
+public class JobCheckpoint {
+
+    private static final JobCheckpoint NONE = new JobCheckpoint(null, null, null, null, null, List.of(), 0);
+
+    // columns 가 없으면 전체 열
+    public record Header(String jobId, String ttbkey, long createdAt, List<String> isbns, List<BookColumn> columns) {
+    }
+
+    private final String jobId;
+    private final Header header;
+    private final Path headerFile;
+    private final Path rowsFile;
+    private final ObjectMapper objectMapper;
+    private final List<LookupResult> restoredResults;
+    private final int flushEveryRows;
+
+    private DataOutputStream out;
+    private int unflushedRows;
+    private boolean closed;
+
+    JobCheckpoint(String jobId, Header header, Path headerFile, Path rowsFile, ObjectMapper objectMapper,
+                  List<LookupResult> restoredResults, int flushEveryRows) {
+        this.jobId = jobId;
+        this.header = header;
+        this.headerFile = headerFile;
+        this.rowsFile = rowsFile;
+        this.objectMapper = objectMapper;
+        this.restoredResults = restoredResults;
+        this.flushEveryRows = Math.max(1, flushEveryRows);
+        this.closed = rowsFile == null;
+    }
+
+    // 체크포인트를 남기지 않는 작업용
+    public static JobCheckpoint none() {
+        return NONE;
+    }
+
+    // 재시작 후 불러온 체크포인트에만 있음
+    public Header header() {
+        return header;
+    }
+
+    // 재시작 전에 끝난 행들의 결과, 입력 순서 그대로
+    public List<LookupResult> restoredResults() {
+        return restoredResults;
+    }
+
+    // 기록 실패는 작업 자체를 실패시키지 않고 이후 기록만 중단
+    public synchronized void append(LookupResult result) {
+        if (closed) {
+            return;
+        }
+        try {
+            if (out == null) {
+                out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(rowsFile,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)));
+            }
+            byte[] json = result.item() != null ? objectMapper.writeValueAsBytes(result.item()) : new byte[0];
+            byte[] payload = new byte[2 + json.length];
+            payload[0] = (byte) result.status().ordinal();
+            payload[1] = (byte) (result.cached() ? 1 : 0);
+            System.arraycopy(json, 0, payload, 2, json.length);
+
+            out.writeInt(payload.length);
+            out.writeInt(crc(payload, payload.length));
+            out.write(payload);
+            if (++unflushedRows >= flushEveryRows) {
+                out.flush();
+                unflushedRows = 0;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write checkpoint for job {}. Further rows will not be checkpointed.", jobId, e);
+            closeQuietly();
+            closed = true;
+        }
+    }
+
+    // 입력이 모두 들어온 뒤 한 번 기록. 그 전에 재시작되면 입력 없이 남은 행 파일은 버려짐
+    void writeHeader(Header header) {
+        if (headerFile == null) {
+            return;
+        }
+        Path tempFile = headerFile.resolveSibling(headerFile.getFileName() + ".tmp");
+        try {
+            objectMapper.writeValue(tempFile.toFile(), header);
+            Files.move(tempFile, headerFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write checkpoint input of job {}. The job will not survive a restart.", jobId, e);
+        }
+    }
+
+    synchronized void delete() {
+        closed = true;
+        closeQuietly();
+        if (headerFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(rowsFile);
+            Files.deleteIfExists(headerFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete checkpoint files of job {}", jobId, e);
+        }
+    }
+
+    // 모든 행을 기록한 뒤 호출. 파일은 작업이 제거될 때까지 남겨 재시작 후 결과를 다시 만들 수 있게 함
+    synchronized void close() {
+        closeQuietly();
+        closed = true;
+    }
+
+    static LookupResult decode(byte[] payload, int length, ObjectMapper objectMapper) throws IOException {
+        LookupResult.Status status = LookupResult.Status.values()[payload[0]];
+        boolean cached = payload[1] != 0;
+        AladinItemDto item = length > 2 ? objectMapper.readValue(payload, 2, length - 2, AladinItemDto.class) : null;
+        return new LookupResult(status, item, cached);
+    }
+
+    static int crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    private void closeQuietly() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.debug("Failed to close checkpoint of job {}", jobId, e);
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,188 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.config.JobProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 작업별 체크포인트 파일(<jobId>.job, <jobId>.rows) 관리.
+// 작업이 제거되거나 실패하면 파일을 지우므로, 시작 시 남아있는 체크포인트는 이어서 처리할 작업.
+// 시작 시 남은 체크포인트를 모두 이어서 처리하므로 디렉터리는 한 프로세스만 쓰도록 <checkpoint-path>/.lock 을 잠금
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobCheckpointStore {
+
+    private static final String HEADER_SUFFIX = ".job";
+    private static final String ROWS_SUFFIX = ".rows";
+
+    private final JobProperties jobProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, JobCheckpoint> checkpoints = new ConcurrentHashMap<>();
+    private FileLock processLock;
+
+    // 다른 인스턴스와 같은 디렉터리를 쓰면 서로의 작업을 이어서 처리하게 되므로 시작하지 않음
+    @PostConstruct
+    public void lockDirectory() throws IOException {
+        if (!jobProperties.isCheckpointEnabled()) {
+            return;
+        }
+        Path directory = Files.createDirectories(Path.of(jobProperties.getCheckpointPath()));
+        FileChannel lockChannel = FileChannel.open(directory.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            processLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            processLock = null;
+        }
+        if (processLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Checkpoint directory " + directory + " is locked by another process. "
+                    + "Give each instance its own bookworm.jobs.checkpoint-path.");
+        }
+    }
+
+    // 입력 목록은 feed 가 닫힐 때 기록하므로 본문을 받는 중에도 끝난 행부터 체크포인트에 남김
+    public JobCheckpoint begin(String jobId, String ttbkey, ColumnProjection projection, IsbnFeed feed) {
+        if (!jobProperties.isCheckpointEnabled()) {
+            return JobCheckpoint.none();
+        }
+        try {
+            Path directory = Files.createDirectories(Path.of(jobProperties.getCheckpointPath()));
+            JobCheckpoint checkpoint = new JobCheckpoint(jobId, null, directory.resolve(jobId + HEADER_SUFFIX),
+                    directory.resolve(jobId + ROWS_SUFFIX), objectMapper, List.of(), jobProperties.getCheckpointEveryRows());
+            checkpoints.put(jobId, checkpoint);
+            long createdAt = System.currentTimeMillis();
+            List<BookColumn> columns = projection.isAll() ? null : projection.columns();
+            feed.whenClosed(isbns -> checkpoint.writeHeader(new JobCheckpoint.Header(jobId, ttbkey, createdAt, isbns, columns)));
+            return checkpoint;
+        } catch (IOException e) {
+            log.warn("Failed to create checkpoint for job {}. The job will not survive a restart.", jobId, e);
+            return JobCheckpoint.none();
+        }
+    }
+
+    // 남아있는 체크포인트를 생성 순서대로 읽어옴. 읽을 수 없는 체크포인트는 삭제
+    public List<JobCheckpoint> loadPending() {
+        Path directory = Path.of(jobProperties.getCheckpointPath());
+        if (!jobProperties.isCheckpointEnabled() || !Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        List<JobCheckpoint> pending = new ArrayList<>();
+        try (DirectoryStream<Path> headers = Files.newDirectoryStream(directory, "*" + HEADER_SUFFIX)) {
+            for (Path headerFile : headers) {
+                String fileName = headerFile.getFileName().toString();
+                String jobId = fileName.substring(0, fileName.length() - HEADER_SUFFIX.length());
+                Path rowsFile = directory.resolve(jobId + ROWS_SUFFIX);
+                try {
+                    JobCheckpoint.Header header = objectMapper.readValue(headerFile.toFile(), JobCheckpoint.Header.class);
+                    List<LookupResult> restored = readRows(rowsFile);
+                    JobCheckpoint checkpoint = new JobCheckpoint(jobId, header, headerFile, rowsFile, objectMapper,
+                            restored, jobProperties.getCheckpointEveryRows());
+                    checkpoints.put(jobId, checkpoint);
+                    pending.add(checkpoint);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Discarding unreadable checkpoint of job {}", jobId, e);
+                    Files.deleteIfExists(rowsFile);
+                    Files.deleteIfExists(headerFile);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list checkpoints in {}", directory, e);
+        }
+        deleteOrphanedRows(directory);
+        pending.sort(Comparator.comparingLong(checkpoint -> checkpoint.header().createdAt()));
+        return pending;
+    }
+
+    // 입력을 다 받기 전에 종료된 작업의 행 파일
+    private void deleteOrphanedRows(Path directory) {
+        try (DirectoryStream<Path> rows = Files.newDirectoryStream(directory, "*" + ROWS_SUFFIX)) {
+            for (Path rowsFile : rows) {
+                String fileName = rowsFile.getFileName().toString();
+                String jobId = fileName.substring(0, fileName.length() - ROWS_SUFFIX.length());
+                if (!checkpoints.containsKey(jobId)) {
+                    log.info("Deleting checkpoint rows of job {} whose input was never completed.", jobId);
+                    Files.deleteIfExists(rowsFile);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up checkpoint rows in {}", directory, e);
+        }
+    }
+
+    public void discard(String jobId) {
+        JobCheckpoint checkpoint = checkpoints.remove(jobId);
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        checkpoints.values().forEach(JobCheckpoint::close);
+        if (processLock != null) {
+            processLock.channel().close();
+            processLock = null;
+        }
+    }
+
+    // CRC 가 맞는 마지막 행까지 읽고, 그 뒤에 남은 잘린 레코드는 잘라냄
+    private List<LookupResult> readRows(Path rowsFile) throws IOException {
+        if (!Files.exists(rowsFile)) {
+            return List.of();
+        }
+        List<LookupResult> results = new ArrayList<>();
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(rowsFile), 64 * 1024))) {
+            byte[] payload = new byte[256];
+            while (true) {
+                int length = in.readInt();
+                int expectedCrc = in.readInt();
+                if (length < 2) {
+                    break;
+                }
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+                if (JobCheckpoint.crc(payload, length) != expectedCrc) {
+                    break;
+                }
+                results.add(JobCheckpoint.decode(payload, length, objectMapper));
+                validLength += 2 * Integer.BYTES + length;
+            }
+        } catch (EOFException e) {
+            // 마지막 레코드가 기록되는 도중에 종료된 경우
+        }
+
+        try (FileChannel channel = FileChannel.open(rowsFile, StandardOpenOption.WRITE)) {
+            if (channel.size() > validLength) {
+                log.warn("Truncating {} trailing bytes of incomplete checkpoint row in {}", channel.size() - validLength, rowsFile);
+                channel.truncate(validLength);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,63 @@
+package com.helper.library.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 작업 스레드는 카운터만 증가시키고, 진행률 이벤트는 ProgressBroadcaster 가 주기적으로 snapshot 을 읽어 전송
+public class JobProgress {
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger restored = new AtomicInteger();
+    private final AtomicInteger cacheHits = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile int total;
+    private volatile long startedAtNanos;
+
+    public record Snapshot(int completed, int total, double percent, double rowsPerSecond,
+                           int cacheHits, int failures, long etaSeconds) {
+    }
+
+    public void start(int total) {
+        this.total = total;
+        this.startedAtNanos = System.nanoTime();
+    }
+
+    // 입력을 받는 중에 시작한 작업은 들어온 건수만큼 전체 건수를 늘림
+    public void updateTotal(int total) {
+        this.total = total;
+    }
+
+    public boolean isStarted() {
+        return startedAtNanos != 0;
+    }
+
+    public void record(LookupResult result) {
+        if (result.cached()) {
+            cacheHits.incrementAndGet();
+        }
+        if (result.status() == LookupResult.Status.FAILED) {
+            failures.incrementAndGet();
+        }
+        completed.incrementAndGet();
+    }
+
+    // 체크포인트에서 복원한 행. 완료 건수에는 포함하지만 이번 실행에서 처리한 행이 아니므로 처리 속도와 남은 시간 계산에서는 뺌
+    public void recordRestored(LookupResult result) {
+        restored.incrementAndGet();
+        record(result);
+    }
+
+    public int completed() {
+        return completed.get();
+    }
+
+    public Snapshot snapshot() {
+        int done = completed.get();
+        int totalCount = total;
+        double elapsedSeconds = (System.nanoTime() - startedAtNanos) / 1_000_000_000.0;
+        double rowsPerSecond = elapsedSeconds > 0 ? (done - restored.get()) / elapsedSeconds : 0;
+        double percent = totalCount > 0 ? (double) done / totalCount * 100 : 100;
+        long etaSeconds = rowsPerSecond > 0 ? (long) Math.ceil((totalCount - done) / rowsPerSecond) : -1;
+        return new Snapshot(done, totalCount, Math.round(percent * 100) / 100.0, Math.round(rowsPerSecond * 10) / 10.0,
+                cacheHits.get(), failures.get(), etaSeconds);
+    }
+}
@@ -0,0 +1,31 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// JobStore 에 보관하는 작업 정보. 작업을 실행하는 인스턴스(owner)가 주기적으로 갱신하고,
+// 다른 인스턴스는 이 정보로 상태 조회와 다운로드를 처리. progress 는 실행이 시작되기 전이면 null
+public record JobRecord(String jobId, String owner, State state, int queuePosition, JobProgress.Snapshot progress,
+                        String error, long resultBytes, long createdAt, long updatedAt) {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    static JobRecord of(JobStatus status, String owner) {
+        State state;
+        if (status.isFinished()) {
+            state = status.getError().get() != null ? State.FAILED : State.COMPLETED;
+        } else {
+            state = status.getProgress().isStarted() ? State.RUNNING : State.QUEUED;
+        }
+        JobProgress.Snapshot progress = status.getProgress().isStarted() ? status.getProgress().snapshot() : null;
+        long updatedAt = status.isFinished() ? status.getFinishedAt() : System.currentTimeMillis();
+        return new JobRecord(status.getJobId(), owner, state, status.getQueuePosition(), progress,
+                status.getError().get(), status.getResultBytes(), status.getCreatedAt(), updatedAt);
+    }
+}
@@ -0,0 +1,214 @@
+package com.helper.library.service;
+
+import com.helper.library.config.JobProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 작업 상태 보관 및 수명 관리: 끝난 작업은 TTL 이 지나면 제거하고, 결과 파일 전체 크기가 상한을 넘으면 오래된 결과부터 제거
+// 작업을 제거하거나 실패 처리하면 체크포인트도 함께 삭제, 제거할 때는 결과 스트리밍용 행 기록도 삭제.
+// 이 인스턴스에서 실행하는 작업의 상태는 JobStore 에도 기록해서 다른 인스턴스가 상태 조회와 다운로드를 처리할 수 있게 함
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobRegistry {
+
+    private final JobProperties jobProperties;
+    private final JobCheckpointStore jobCheckpointStore;
+    private final JobStore jobStore;
+
+    private final Map<String, JobStatus> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong expiredJobs = new AtomicLong();
+    private final AtomicLong evictedResults = new AtomicLong();
+
+    public record Stats(int activeJobs, int finishedJobs, long retainedBytes, long maxRetainedBytes,
+                        long expiredJobs, long evictedResults) {
+    }
+
+    public JobStatus create() {
+        String jobId = UUID.randomUUID().toString();
+        JobStatus status = new JobStatus(jobId);
+        jobs.put(jobId, status);
+        jobStore.create(JobRecord.of(status, jobProperties.getInstanceId()));
+        return status;
+    }
+
+    // 재시작 후 체크포인트에서 이어서 처리할 작업을 같은 ID 로 다시 등록
+    public JobStatus restore(String jobId) {
+        JobStatus status = jobs.computeIfAbsent(jobId, JobStatus::new);
+        jobStore.create(JobRecord.of(status, jobProperties.getInstanceId()));
+        return status;
+    }
+
+    public JobStatus get(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    public List<JobStatus> unfinishedJobs() {
+        return jobs.values().stream().filter(status -> !status.isFinished()).toList();
+    }
+
+    // 결과 파일을 작업에 연결. 이미 제거된 작업이면 파일을 지우고 false 반환
+    public boolean complete(String jobId, Path resultFile) {
+        JobStatus status = jobs.get(jobId);
+        if (status == null) {
+            deleteResultFile(resultFile);
+            return false;
+        }
+
+        long size = sizeOf(resultFile);
+        try {
+            resultFile = jobStore.putResult(jobId, resultFile);
+        } catch (IOException e) {
+            log.warn("Failed to share result of job {}. Only this instance can serve the download.", jobId, e);
+        }
+        status.getResult().set(resultFile);
+        status.markFinished(size);
+        retainedBytes.addAndGet(size);
+        publish(status);
+        enforceBudget(jobId);
+        return jobs.containsKey(jobId);
+    }
+
+    public void fail(String jobId, String message) {
+        JobStatus status = jobs.get(jobId);
+        if (status != null) {
+            status.getError().set(message);
+            status.markFinished(0);
+            status.getResultLog().get().finish();
+            publish(status);
+        }
+        jobCheckpointStore.discard(jobId);
+    }
+
+    public void remove(String jobId) {
+        JobStatus status = jobs.remove(jobId);
+        jobCheckpointStore.discard(jobId);
+        jobStore.delete(jobId);
+        if (status == null) {
+            return;
+        }
+        Path resultFile = status.getResult().getAndSet(null);
+        if (resultFile != null) {
+            retainedBytes.addAndGet(-status.getResultBytes());
+            deleteResultFile(resultFile);
+        }
+        status.getResultLog().getAndSet(JobResultLog.none()).delete();
+        status.closeConnections();
+    }
+
+    @Scheduled(fixedDelayString = "${bookworm.jobs.sweep-interval:PT1M}")
+    public void sweep() {
+        long cutoff = System.currentTimeMillis() - jobProperties.getFinishedJobTtl().toMillis();
+        List<String> expired = jobs.values().stream()
+                .filter(status -> status.isFinished() && status.getFinishedAt() < cutoff)
+                .map(JobStatus::getJobId)
+                .toList();
+
+        for (String jobId : expired) {
+            remove(jobId);
+            expiredJobs.incrementAndGet();
+        }
+        if (!expired.isEmpty()) {
+            log.info("Removed {} expired jobs. Retained result bytes: {}", expired.size(), retainedBytes.get());
+        }
+
+        // 종료된 다른 인스턴스가 남긴 작업 정보. 실행 중인 작업은 주기적으로 갱신되므로 TTL 이 지나지 않음
+        List<String> orphaned = jobStore.expire(cutoff);
+        if (!orphaned.isEmpty()) {
+            log.info("Removed {} expired jobs from the shared job store.", orphaned.size());
+        }
+    }
+
+    // 진행 중인 작업의 대기 순서와 진행률을 JobStore 에 갱신. 끝난 작업이 JobStore 에서 사라졌으면
+    // (다른 인스턴스에서 다운로드했거나 만료됨) 이 인스턴스에서도 제거
+    @Scheduled(fixedRateString = "${bookworm.jobs.store-sync-interval:PT1S}")
+    public void syncStore() {
+        for (JobStatus status : jobs.values()) {
+            String jobId = status.getJobId();
+            if (status.isFinished()) {
+                if (jobStore.find(jobId) == null) {
+                    log.info("Job {} was removed from the job store. Removing it here as well.", jobId);
+                    remove(jobId);
+                }
+            } else if (!publish(status)) {
+                jobStore.create(JobRecord.of(status, jobProperties.getInstanceId()));
+                // 그 사이에 제거된 작업이면 다시 만든 정보를 지움
+                if (jobs.get(jobId) != status) {
+                    jobStore.delete(jobId);
+                }
+            }
+        }
+    }
+
+    public Stats stats() {
+        int finished = (int) jobs.values().stream().filter(JobStatus::isFinished).count();
+        return new Stats(jobs.size() - finished, finished, retainedBytes.get(),
+                jobProperties.getMaxRetainedResultSize().toBytes(), expiredJobs.get(), evictedResults.get());
+    }
+
+    // 방금 완료된 작업은 남겨두고 가장 오래된 결과부터 제거
+    private void enforceBudget(String keepJobId) {
+        long budget = jobProperties.getMaxRetainedResultSize().toBytes();
+        if (retainedBytes.get() <= budget) {
+            return;
+        }
+
+        List<JobStatus> candidates = jobs.values().stream()
+                .filter(status -> status.getResult().get() != null && !status.getJobId().equals(keepJobId))
+                .sorted(Comparator.comparingLong(JobStatus::getFinishedAt))
+                .toList();
+
+        for (JobStatus status : candidates) {
+            if (retainedBytes.get() <= budget) {
+                break;
+            }
+            log.warn("Evicting result of job {} ({} bytes) to stay within result budget.", status.getJobId(), status.getResultBytes());
+            remove(status.getJobId());
+            evictedResults.incrementAndGet();
+        }
+    }
+
+    // 기록하지 못해도 이 인스턴스의 작업 처리는 계속함. 작업 정보가 없으면 false
+    private boolean publish(JobStatus status) {
+        try {
+            return jobStore.update(JobRecord.of(status, jobProperties.getInstanceId()));
+        } catch (UncheckedIOException e) {
+            log.warn("Failed to update job store for job {}", status.getJobId(), e);
+            return true;
+        }
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            log.warn("Failed to read size of result file {}", file, e);
+            return 0;
+        }
+    }
+
+    private void deleteResultFile(Path resultFile) {
+        if (resultFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(resultFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete result file {}", resultFile, e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.dto.AladinItemDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 작업의 끝난 행을 완료 순서대로 임시 파일에 이어 쓰고, 실행 중에도 입력 순서나 완료 순서로 읽을 수 있게 함.
+// 메모리에는 행 번호별, 완료 순서별 파일 위치만 두므로 결과 스트리밍이 결과 전체를 메모리에 들고 있지 않음.
+// 레코드 형식: [레코드 길이 int][완료 순서 int][행 번호 int][상태 byte][cached byte][ISBN 길이 int][ISBN][도서 JSON]
+@Slf4j
+public class JobResultLog {
+
+    private static final JobResultLog NONE = new JobResultLog(null, ColumnProjection.all(), null, null, null);
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int FIXED_LENGTH = 3 * Integer.BYTES + 2;
+
+    public enum Order {
+        INPUT, COMPLETION
+    }
+
+    public record Entry(int sequence, int index, String isbn, LookupResult result) {
+    }
+
+    private final String jobId;
+    private final ColumnProjection projection;
+    private final Path file;
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+
+    // 파일 위치 + 1, 0 이면 아직 끝나지 않은 행
+    private long[] positionByIndex = new long[0];
+    private long[] positionBySequence = new long[0];
+    private int count;
+    private long writePosition;
+    private boolean finished;
+    private boolean deleted;
+
+    private JobResultLog(String jobId, ColumnProjection projection, Path file, FileChannel channel, ObjectMapper objectMapper) {
+        this.jobId = jobId;
+        this.projection = projection;
+        this.file = file;
+        this.channel = channel;
+        this.objectMapper = objectMapper;
+        this.finished = channel == null;
+    }
+
+    // 결과를 기록하지 않는 작업용
+    public static JobResultLog none() {
+        return NONE;
+    }
+
+    static JobResultLog create(String jobId, ColumnProjection projection, String tempDir, ObjectMapper objectMapper) throws IOException {
+        Path file = tempDir == null || tempDir.isBlank()
+                ? Files.createTempFile("bookworm-rows-", ".log")
+                : Files.createTempFile(Files.createDirectories(Path.of(tempDir)), "bookworm-rows-", ".log");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        JobResultLog resultLog = new JobResultLog(jobId, projection, file, channel, objectMapper);
+        resultLog.positionByIndex = new long[INITIAL_CAPACITY];
+        resultLog.positionBySequence = new long[INITIAL_CAPACITY];
+        return resultLog;
+    }
+
+    // 작업에서 출력하는 열
+    public ColumnProjection projection() {
+        return projection;
+    }
+
+    // 기록 실패는 작업을 실패시키지 않고 스트리밍만 끝냄.
+    // 도서 정보를 변환하지 못한 행은 도서 정보 없이 FAILED 로 기록해서 두 순서 모두 행이 빠지지 않게 함
+    public void append(int index, String isbn, LookupResult result) {
+        if (channel == null) {
+            return;
+        }
+        LookupResult recorded = result;
+        byte[] json;
+        try {
+            json = result.item() != null ? objectMapper.writeValueAsBytes(result.item()) : new byte[0];
+        } catch (IOException e) {
+            log.warn("Failed to encode result row {} of job {}. Recording it as failed.", index, jobId, e);
+            recorded = LookupResult.failed();
+            json = new byte[0];
+        }
+        byte[] isbnBytes = isbn != null ? isbn.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int length = FIXED_LENGTH + isbnBytes.length + json.length;
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length);
+        record.putInt(length).putInt(0).putInt(index)
+                .put((byte) recorded.status().ordinal()).put((byte) (recorded.cached() ? 1 : 0))
+                .putInt(isbnBytes.length).put(isbnBytes).put(json)
+                .flip();
+
+        lock.lock();
+        try {
+            if (finished) {
+                return;
+            }
+            record.putInt(Integer.BYTES, count);
+            long position = writePosition;
+            while (record.hasRemaining()) {
+                writePosition += channel.write(record, writePosition);
+            }
+            positionByIndex = ensureCapacity(positionByIndex, index);
+            positionBySequence = ensureCapacity(positionBySequence, count);
+            positionByIndex[index] = position + 1;
+            positionBySequence[count] = position + 1;
+            count++;
+            appended.signalAll();
+        } catch (IOException e) {
+            log.warn("Failed to write result row {} of job {}. Result streaming ends here.", index, jobId, e);
+            finished = true;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 더 이상 기록할 행이 없음(완료, 실패 또는 취소). 기다리는 스트림은 남은 행을 읽고 끝남
+    public void finish() {
+        if (channel == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            finished = true;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 입력 순서면 position 번째 행, 완료 순서면 position 번째로 끝난 행이 기록될 때까지 기다림.
+    // 작업이 끝나서 더 이상 기록될 수 없으면 null
+    public Entry await(Order order, int position) throws InterruptedException, IOException {
+        long filePosition;
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                if (deleted) {
+                    return null;
+                }
+                long[] positions = order == Order.INPUT ? positionByIndex : positionBySequence;
+                filePosition = position < positions.length ? positions[position] : 0;
+                if (filePosition > 0 || finished) {
+                    break;
+                }
+                appended.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (filePosition == 0) {
+            return null;
+        }
+        try {
+            return read(filePosition - 1);
+        } catch (IOException e) {
+            // 읽는 사이에 작업이 취소, 다운로드, 만료되어 기록이 삭제됨 (ClosedChannelException 등). 스트림은 여기서 정상 종료
+            if (isDeleted()) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    // 기다리지 않고 바로 읽을 수 있는지
+    public boolean isAvailable(Order order, int position) {
+        lock.lock();
+        try {
+            long[] positions = order == Order.INPUT ? positionByIndex : positionBySequence;
+            return position < positions.length && positions[position] > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isDeleted() {
+        lock.lock();
+        try {
+            return deleted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void delete() {
+        if (channel == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (deleted) {
+                return;
+            }
+            deleted = true;
+            finished = true;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete result rows of job {}", jobId, e);
+        }
+    }
+
+    private Entry read(long position) throws IOException {
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+        readFully(lengthBuffer, position);
+        ByteBuffer record = ByteBuffer.allocate(lengthBuffer.flip().getInt());
+        readFully(record, position + Integer.BYTES);
+        record.flip();
+
+        int sequence = record.getInt();
+        int index = record.getInt();
+        LookupResult.Status status = LookupResult.Status.values()[record.get()];
+        boolean cached = record.get() != 0;
+        int isbnLength = record.getInt();
+        String isbn = new String(record.array(), record.position(), isbnLength, StandardCharsets.UTF_8);
+        int jsonOffset = record.position() + isbnLength;
+        int jsonLength = record.limit() - jsonOffset;
+        AladinItemDto item = jsonLength > 0 ? objectMapper.readValue(record.array(), jsonOffset, jsonLength, AladinItemDto.class) : null;
+        return new Entry(sequence, index, isbn, new LookupResult(status, item, cached));
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of result rows of job " + jobId);
+            }
+        }
+    }
+
+    private static long[] ensureCapacity(long[] positions, int index) {
+        if (index < positions.length) {
+            return positions;
+        }
+        return Arrays.copyOf(positions, Math.max(index + 1, positions.length * 2));
+    }
+}
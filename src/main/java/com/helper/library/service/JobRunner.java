@@ -0,0 +1,182 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.config.JobProperties;
+import com.helper.library.config.OutputProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+// 작업을 스케줄러에 넣고 실행 결과를 작업 상태와 SSE 연결에 반영.
+// 시작 시 남아있는 체크포인트가 있으면 같은 작업 ID 로 이어서 처리.
+// 취소하거나 상태 조회 연결이 끊긴 채 방치된 작업은 조회를 멈추고 바로 제거
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobRunner {
+
+    private final ExcelService excelService;
+    private final JobScheduler jobScheduler;
+    private final JobRegistry jobRegistry;
+    private final JobCheckpointStore jobCheckpointStore;
+    private final JobStore jobStore;
+    private final OutputProperties outputProperties;
+    private final JobProperties jobProperties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService taskExecutor;
+    private final MeterRegistry meterRegistry;
+
+    // 대기열이 가득 차서 받을 수 없으면 false. feed 는 아직 입력을 받는 중이어도 됨
+    public boolean submit(String jobId, IsbnFeed feed, String ttbkey, ColumnProjection projection) {
+        log.info("Queueing job ID: {} with {} ISBNs received so far", jobId, feed.size());
+        JobCheckpoint checkpoint = jobCheckpointStore.begin(jobId, ttbkey, projection, feed);
+        return schedule(jobId, feed, ttbkey, projection, checkpoint);
+    }
+
+    public void fail(String jobId, String message) {
+        jobRegistry.fail(jobId, message);
+        JobStatus status = jobRegistry.get(jobId);
+        if (status != null) {
+            status.sendFinalEvent();
+            log.info("Sent error event for job {}.", jobId);
+        }
+    }
+
+    // 대기 중이거나 실행 중인 작업을 멈추고 체크포인트, 행 기록과 함께 제거. 없거나 이미 끝난 작업이면 false
+    public boolean cancel(String jobId, String reason) {
+        JobStatus status = jobRegistry.get(jobId);
+        if (status == null || status.isFinished()) {
+            return false;
+        }
+        log.info("Cancelling job {} ({}).", jobId, reason);
+        if (!jobScheduler.cancel(jobId)) {
+            // 대기열에도 실행 중에도 없음: 방금 끝났거나 아직 대기열에 넣기 전
+            log.info("Job {} was not queued or running when cancelled.", jobId);
+        }
+        fail(jobId, "작업이 취소되었습니다.");
+        jobRegistry.remove(jobId);
+        meterRegistry.counter("bookworm.jobs.cancelled", "reason", reason).increment();
+        return true;
+    }
+
+    // 끊긴 상태 조회 연결을 정리하고, 유예 시간 안에 다시 연결되지 않은 작업은 취소.
+    // 다른 인스턴스에서 상태를 조회하는 중인 작업은 방치된 것으로 보지 않음
+    @Scheduled(fixedDelayString = "${bookworm.jobs.abandon-check-interval:PT10S}")
+    public void cancelAbandonedJobs() {
+        long gracePeriodMillis = jobProperties.getAbandonGracePeriod().toMillis();
+        for (JobStatus status : jobRegistry.unfinishedJobs()) {
+            if (status.isAbandoned(gracePeriodMillis)
+                    && System.currentTimeMillis() - jobStore.watchedAt(status.getJobId()) >= gracePeriodMillis) {
+                cancel(status.getJobId(), "abandoned");
+            } else if (!status.getEmitters().isEmpty()) {
+                taskExecutor.execute(status::heartbeat);
+            }
+        }
+    }
+
+    // 다른 인스턴스가 받은 취소 요청
+    @Scheduled(fixedDelayString = "${bookworm.jobs.store-sync-interval:PT1S}")
+    public void applyCancelRequests() {
+        for (JobStatus status : jobRegistry.unfinishedJobs()) {
+            if (jobStore.isCancelRequested(status.getJobId())) {
+                cancel(status.getJobId(), "requested");
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeCheckpointedJobs() {
+        List<JobCheckpoint> pending = jobCheckpointStore.loadPending();
+        for (JobCheckpoint checkpoint : pending) {
+            JobCheckpoint.Header header = checkpoint.header();
+            jobRegistry.restore(header.jobId());
+            log.info("Resuming job {} from row {} of {}", header.jobId(), checkpoint.restoredResults().size(), header.isbns().size());
+            ColumnProjection projection = ColumnProjection.of(header.columns());
+            if (!schedule(header.jobId(), IsbnFeed.of(header.isbns()), header.ttbkey(), projection, checkpoint)) {
+                fail(header.jobId(), "대기 중인 작업이 너무 많아 재시작된 작업을 이어서 처리하지 못했습니다.");
+            }
+        }
+    }
+
+    // 결과 행 기록은 대기 중에도 스트림 요청이 기다릴 수 있도록 대기열에 넣을 때 만듦
+    private boolean schedule(String jobId, IsbnFeed feed, String ttbkey, ColumnProjection projection, JobCheckpoint checkpoint) {
+        JobResultLog resultLog = openResultLog(jobId, projection);
+        return jobScheduler.submit(jobId, ttbkey,
+                () -> runJob(jobId, feed, ttbkey, projection, checkpoint, resultLog),
+                position -> updateQueuePosition(jobId, position));
+    }
+
+    private CompletableFuture<Path> runJob(String jobId, IsbnFeed feed, String ttbkey, ColumnProjection projection,
+                                           JobCheckpoint checkpoint, JobResultLog resultLog) {
+        log.info("Starting processing for job ID: {} with {} ISBNs received so far", jobId, feed.size());
+        JobStatus status = jobRegistry.get(jobId);
+        if (status == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        status.updateQueuePosition(0);
+        // 스케줄러가 취소할 수 있도록 후속 단계가 아닌 작업 future 자체를 반환
+        CompletableFuture<Path> work = excelService.createExcelFile(feed, ttbkey, projection, status.getProgress(), checkpoint, resultLog);
+        work.whenComplete((resultFile, throwable) -> handleProcessingCompletion(jobId, resultFile, throwable));
+        return work;
+    }
+
+    // 기록을 만들지 못해도 작업은 진행하고 결과 스트리밍만 빈 결과로 끝남
+    private JobResultLog openResultLog(String jobId, ColumnProjection projection) {
+        JobStatus status = jobRegistry.get(jobId);
+        if (status == null) {
+            return JobResultLog.none();
+        }
+        try {
+            JobResultLog resultLog = JobResultLog.create(jobId, projection, outputProperties.getTempDir(), objectMapper);
+            status.getResultLog().set(resultLog);
+            if (jobRegistry.get(jobId) != status) {
+                resultLog.delete();
+                return JobResultLog.none();
+            }
+            return resultLog;
+        } catch (IOException e) {
+            log.warn("Failed to create result rows of job {}. Results can only be downloaded.", jobId, e);
+            return JobResultLog.none();
+        }
+    }
+
+    private void handleProcessingCompletion(String jobId, Path resultFile, Throwable throwable) {
+        if (throwable instanceof CancellationException) {
+            log.info("Job {} stopped after cancellation.", jobId);
+            return;
+        }
+        if (throwable != null) {
+            log.error("Error processing job {}", jobId, throwable);
+            fail(jobId, "작업 처리 중 오류가 발생했습니다: " + throwable.getMessage());
+            return;
+        }
+        if (!jobRegistry.complete(jobId, resultFile)) {
+            log.warn("Job {} was removed before its result could be kept.", jobId);
+            return;
+        }
+        JobStatus status = jobRegistry.get(jobId);
+        if (status == null) {
+            return;
+        }
+        log.info("Successfully completed job {}", jobId);
+        status.sendFinalEvent();
+    }
+
+    private void updateQueuePosition(String jobId, int position) {
+        JobStatus status = jobRegistry.get(jobId);
+        if (status != null) {
+            status.updateQueuePosition(position);
+        }
+    }
+}
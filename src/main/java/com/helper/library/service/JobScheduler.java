@@ -0,0 +1,204 @@
+package com.helper.library.service;
+
+import com.helper.library.config.JobProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+// 동시 실행 작업 수를 제한하고, 대기 작업은 fairness key(ttbkey) 별 큐에서 번갈아 꺼내 실행.
+// 실행 중인 작업이 적은 key 를 우선하므로 한 사용자의 대형 작업이 다른 사용자의 작은 작업을 막지 않음.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobScheduler {
+
+    // 대기열에서 꺼냈지만 아직 작업 future 를 받지 못한 작업 자리
+    private static final CompletableFuture<?> STARTING = new CompletableFuture<>();
+
+    private final JobProperties jobProperties;
+
+    private final LinkedHashMap<String, Deque<QueuedJob>> queues = new LinkedHashMap<>();
+    private final Map<String, Integer> runningByKey = new HashMap<>();
+    private final Map<String, CompletableFuture<?>> runningTasks = new HashMap<>();
+    // 시작하는 사이에 취소된 작업, start 가 실행하지 않거나 받은 future 를 바로 취소
+    private final Set<String> cancelledBeforeStart = new HashSet<>();
+    private int running;
+    private int queued;
+
+    private record QueuedJob(String jobId, String fairnessKey, Supplier<CompletableFuture<?>> task, IntConsumer positionListener) {
+    }
+
+    public boolean submit(String jobId, String fairnessKey, Supplier<CompletableFuture<?>> task, IntConsumer positionListener) {
+        synchronized (this) {
+            if (queued >= jobProperties.getMaxQueuedJobs()) {
+                log.warn("Rejecting job {}: queue is full ({} waiting).", jobId, queued);
+                return false;
+            }
+            queues.computeIfAbsent(fairnessKey, key -> new ArrayDeque<>())
+                    .addLast(new QueuedJob(jobId, fairnessKey, task, positionListener));
+            queued++;
+        }
+        dispatch();
+        return true;
+    }
+
+    // 대기 중이면 대기열에서 빼고, 실행 중이면 작업 future 를 취소해서 작업 스레드를 인터럽트. 해당 작업이 없으면 false
+    public boolean cancel(String jobId) {
+        boolean dequeued = false;
+        CompletableFuture<?> runningTask = null;
+        synchronized (this) {
+            for (Iterator<Deque<QueuedJob>> it = queues.values().iterator(); it.hasNext(); ) {
+                Deque<QueuedJob> jobs = it.next();
+                if (jobs.removeIf(job -> job.jobId().equals(jobId))) {
+                    queued--;
+                    dequeued = true;
+                    if (jobs.isEmpty()) {
+                        it.remove();
+                    }
+                    break;
+                }
+            }
+            if (!dequeued) {
+                runningTask = runningTasks.get(jobId);
+                if (runningTask == STARTING) {
+                    cancelledBeforeStart.add(jobId);
+                    runningTask = null;
+                    dequeued = true;
+                }
+            }
+        }
+
+        if (dequeued) {
+            log.info("Removed job {} from the queue or before it started.", jobId);
+            // 뒤에서 기다리던 작업들의 대기 순서를 다시 알림
+            dispatch();
+            return true;
+        }
+        if (runningTask != null) {
+            log.info("Cancelling running job {}.", jobId);
+            runningTask.cancel(true);
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized int queueDepth() {
+        return queued;
+    }
+
+    public synchronized int runningJobs() {
+        return running;
+    }
+
+    private void dispatch() {
+        List<QueuedJob> toStart = new ArrayList<>();
+        List<QueuedJob> waiting;
+        synchronized (this) {
+            while (running < jobProperties.getMaxConcurrentJobs() && queued > 0) {
+                QueuedJob next = pollNext(queues, runningByKey);
+                queued--;
+                running++;
+                runningByKey.merge(next.fairnessKey(), 1, Integer::sum);
+                runningTasks.put(next.jobId(), STARTING);
+                toStart.add(next);
+            }
+            waiting = expectedOrder();
+        }
+
+        for (QueuedJob job : toStart) {
+            start(job);
+        }
+        for (int i = 0; i < waiting.size(); i++) {
+            waiting.get(i).positionListener().accept(i + 1);
+        }
+    }
+
+    private void start(QueuedJob job) {
+        boolean cancelledEarly;
+        synchronized (this) {
+            cancelledEarly = cancelledBeforeStart.contains(job.jobId());
+        }
+        if (cancelledEarly) {
+            log.info("Job {} was cancelled before it started.", job.jobId());
+            finished(job);
+            return;
+        }
+        log.info("Starting job {} ({} running, {} queued)", job.jobId(), runningJobs(), queueDepth());
+        try {
+            CompletableFuture<?> task = job.task().get();
+            boolean cancelled;
+            synchronized (this) {
+                cancelled = cancelledBeforeStart.remove(job.jobId());
+                runningTasks.put(job.jobId(), task);
+            }
+            // 작업 future 를 받는 동안 취소됨
+            if (cancelled) {
+                log.info("Cancelling job {} that was cancelled while starting.", job.jobId());
+                task.cancel(true);
+            }
+            task.whenComplete((result, throwable) -> finished(job));
+        } catch (RuntimeException e) {
+            log.error("Failed to start job {}", job.jobId(), e);
+            finished(job);
+        }
+    }
+
+    private void finished(QueuedJob job) {
+        synchronized (this) {
+            runningTasks.remove(job.jobId());
+            cancelledBeforeStart.remove(job.jobId());
+            running--;
+            runningByKey.computeIfPresent(job.fairnessKey(), (key, count) -> count > 1 ? count - 1 : null);
+        }
+        dispatch();
+    }
+
+    // 새 작업이 들어오지 않는다고 가정했을 때 대기 작업이 실행될 순서
+    private List<QueuedJob> expectedOrder() {
+        LinkedHashMap<String, Deque<QueuedJob>> queuesCopy = new LinkedHashMap<>();
+        queues.forEach((key, jobs) -> queuesCopy.put(key, new ArrayDeque<>(jobs)));
+        Map<String, Integer> runningCopy = new HashMap<>(runningByKey);
+
+        List<QueuedJob> order = new ArrayList<>(queued);
+        for (int i = 0; i < queued; i++) {
+            QueuedJob next = pollNext(queuesCopy, runningCopy);
+            runningCopy.merge(next.fairnessKey(), 1, Integer::sum);
+            order.add(next);
+        }
+        return order;
+    }
+
+    // 실행 중인 작업이 가장 적은 key 의 큐에서 꺼내고, 같으면 먼저 순서가 온 key 를 선택. 꺼낸 key 는 순서의 맨 뒤로 이동
+    private static QueuedJob pollNext(LinkedHashMap<String, Deque<QueuedJob>> queues, Map<String, Integer> runningByKey) {
+        String selectedKey = null;
+        int fewestRunning = Integer.MAX_VALUE;
+        for (String key : queues.keySet()) {
+            int runningForKey = runningByKey.getOrDefault(key, 0);
+            if (runningForKey < fewestRunning) {
+                selectedKey = key;
+                fewestRunning = runningForKey;
+            }
+        }
+
+        Deque<QueuedJob> jobs = queues.remove(selectedKey);
+        QueuedJob next = jobs.pollFirst();
+        if (!jobs.isEmpty()) {
+            queues.put(selectedKey, jobs);
+        }
+        return next;
+    }
+}
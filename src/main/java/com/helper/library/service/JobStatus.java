@@ -0,0 +1,166 @@
+package com.helper.library.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Getter
+public class JobStatus {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = 3600_000L;
+
+    private final String jobId;
+    private final AtomicReference<Path> result = new AtomicReference<>(null);
+    private final AtomicReference<String> error = new AtomicReference<>(null);
+    private final long createdAt = System.currentTimeMillis();
+    private final JobProgress progress = new JobProgress();
+
+    // 끝난 행 기록, 결과 스트리밍이 읽음. 작업이 실행되기 전이나 기록을 만들지 못했으면 none()
+    private final AtomicReference<JobResultLog> resultLog = new AtomicReference<>(JobResultLog.none());
+
+    // 상태 조회 연결마다 emitter 를 따로 두어 새로고침이나 재시작 후에도 다시 연결할 수 있게 함
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    // 마지막 상태 조회 연결이 끊긴 시각, 연결이 있거나 한 번도 연결되지 않았으면 0.
+    // 끊긴 채로 유예 시간이 지나면 작업을 자동으로 취소
+    private volatile long detachedAt;
+
+    // 진행 중인 결과 스트리밍(/api/results) 응답 수, 스트림을 받는 중이면 자동 취소하지 않음
+    private final AtomicInteger resultStreams = new AtomicInteger();
+
+    // 진행률 전송이 진행 중이면 다음 주기로 넘기기 위한 플래그와 마지막으로 전송한 완료 건수
+    private final AtomicBoolean sendingProgress = new AtomicBoolean();
+    private volatile int lastSentCompleted = -1;
+
+    // 마지막으로 알린 대기 순서, 대기 중이 아니면 0
+    private volatile int queuePosition;
+
+    // 작업이 끝난(성공 또는 실패) 시각, 진행 중이면 0
+    private volatile long finishedAt;
+    private volatile long resultBytes;
+
+    JobStatus(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != 0;
+    }
+
+    // 새 연결을 등록하고 현재 상태(대기 순서, 진행률 또는 완료/오류)를 바로 전송
+    public SseEmitter connect() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        emitter.onCompletion(() -> detach(emitter));
+        emitter.onTimeout(() -> detach(emitter));
+        emitter.onError(e -> detach(emitter));
+        emitters.add(emitter);
+        detachedAt = 0;
+
+        if (isFinished()) {
+            sendFinalEvent(emitter);
+        } else if (progress.isStarted()) {
+            send(emitter, "progress", progress.snapshot(), MediaType.APPLICATION_JSON);
+        } else if (queuePosition > 0) {
+            send(emitter, "queued", queuePosition, null);
+        }
+        return emitter;
+    }
+
+    // 0 이면 실행이 시작되어 대기열을 벗어난 것
+    public void updateQueuePosition(int position) {
+        this.queuePosition = position;
+        if (position > 0) {
+            send("queued", position, null);
+        }
+    }
+
+    public void send(String name, Object data, MediaType mediaType) {
+        for (SseEmitter emitter : emitters) {
+            send(emitter, name, data, mediaType);
+        }
+    }
+
+    // 완료 또는 오류 이벤트를 보내고 모든 연결을 닫음
+    public void sendFinalEvent() {
+        for (SseEmitter emitter : emitters) {
+            sendFinalEvent(emitter);
+        }
+    }
+
+    // 끊긴 연결은 다음 전송에서야 드러나므로 진행률이 멈춰 있어도 주기적으로 보내서 확인
+    public void heartbeat() {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (Exception e) {
+                log.debug("Status connection of job {} is gone.", jobId, e);
+                detach(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    // 연결이 끊긴 채로 gracePeriodMillis 이상 지났고 결과 스트림도 받지 않는 중
+    public boolean isAbandoned(long gracePeriodMillis) {
+        long since = detachedAt;
+        return since != 0 && emitters.isEmpty() && resultStreams.get() == 0
+                && System.currentTimeMillis() - since >= gracePeriodMillis;
+    }
+
+    public void closeConnections() {
+        for (SseEmitter emitter : emitters) {
+            emitter.complete();
+        }
+        emitters.clear();
+    }
+
+    public boolean tryBeginProgressSend() {
+        return sendingProgress.compareAndSet(false, true);
+    }
+
+    public void endProgressSend(int sentCompleted) {
+        lastSentCompleted = sentCompleted;
+        sendingProgress.set(false);
+    }
+
+    void markFinished(long resultBytes) {
+        this.resultBytes = resultBytes;
+        this.finishedAt = System.currentTimeMillis();
+    }
+
+    private void sendFinalEvent(SseEmitter emitter) {
+        String message = error.get();
+        if (message != null) {
+            send(emitter, "error", message, null);
+        } else {
+            send(emitter, "complete", "100.00", null);
+        }
+        detach(emitter);
+        emitter.complete();
+    }
+
+    private void detach(SseEmitter emitter) {
+        if (emitters.remove(emitter) && emitters.isEmpty()) {
+            detachedAt = System.currentTimeMillis();
+        }
+    }
+
+    private void send(SseEmitter emitter, String name, Object data, MediaType mediaType) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, mediaType));
+        } catch (Exception e) {
+            log.debug("Failed to send {} event for job {}. Dropping connection.", name, jobId, e);
+            detach(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.helper.library.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+
+// 다른 인스턴스에서 실행 중인 작업의 상태 조회. JobStore 의 작업 정보를 주기적으로 다시 읽어서
+// JobStatus 와 같은 이벤트(queued, progress, complete, error)로 전달
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobStatusRelay {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = 3600_000L;
+
+    private final JobStore jobStore;
+    private final ExecutorService taskExecutor;
+
+    private final Map<String, List<Watcher>> watchers = new ConcurrentHashMap<>();
+
+    // 연결마다 마지막으로 보낸 대기 순서와 완료 건수
+    private static final class Watcher {
+        private final String jobId;
+        private final SseEmitter emitter;
+        private volatile int lastQueuePosition = -1;
+        private volatile int lastCompleted = -1;
+
+        private Watcher(String jobId, SseEmitter emitter) {
+            this.jobId = jobId;
+            this.emitter = emitter;
+        }
+    }
+
+    // 작업 정보가 없으면 null
+    public SseEmitter follow(String jobId) {
+        JobRecord record = jobStore.find(jobId);
+        if (record == null) {
+            return null;
+        }
+        Watcher watcher = new Watcher(jobId, new SseEmitter(EMITTER_TIMEOUT_MILLIS));
+        watcher.emitter.onCompletion(() -> unfollow(watcher));
+        watcher.emitter.onTimeout(() -> unfollow(watcher));
+        watcher.emitter.onError(e -> unfollow(watcher));
+        watchers.compute(jobId, (id, jobWatchers) -> {
+            List<Watcher> list = jobWatchers != null ? jobWatchers : new CopyOnWriteArrayList<>();
+            list.add(watcher);
+            return list;
+        });
+        log.info("Relaying status of job {} running on instance {}.", jobId, record.owner());
+
+        jobStore.markWatched(jobId);
+        relay(watcher, record);
+        return watcher.emitter;
+    }
+
+    @Scheduled(fixedRateString = "${bookworm.jobs.store-sync-interval:PT1S}")
+    public void poll() {
+        for (Map.Entry<String, List<Watcher>> entry : watchers.entrySet()) {
+            String jobId = entry.getKey();
+            List<Watcher> jobWatchers = entry.getValue();
+            if (jobWatchers.isEmpty()) {
+                watchers.computeIfPresent(jobId, (id, list) -> list.isEmpty() ? null : list);
+                continue;
+            }
+            JobRecord record = jobStore.find(jobId);
+            if (record != null && !record.isFinished()) {
+                jobStore.markWatched(jobId);
+            }
+            for (Watcher watcher : jobWatchers) {
+                taskExecutor.execute(() -> relay(watcher, record));
+            }
+        }
+    }
+
+    private void relay(Watcher watcher, JobRecord record) {
+        if (record == null) {
+            // 다운로드되었거나 만료되어 제거된 작업
+            send(watcher, "error", "작업을 찾을 수 없습니다.", null);
+            finish(watcher);
+            return;
+        }
+        if (record.isFinished()) {
+            if (record.state() == JobRecord.State.FAILED) {
+                send(watcher, "error", record.error(), null);
+            } else {
+                send(watcher, "complete", "100.00", null);
+            }
+            finish(watcher);
+            return;
+        }
+        if (record.progress() != null && record.progress().completed() != watcher.lastCompleted) {
+            watcher.lastCompleted = record.progress().completed();
+            send(watcher, "progress", record.progress(), MediaType.APPLICATION_JSON);
+        } else if (record.progress() == null && record.queuePosition() > 0 && record.queuePosition() != watcher.lastQueuePosition) {
+            watcher.lastQueuePosition = record.queuePosition();
+            send(watcher, "queued", record.queuePosition(), null);
+        } else {
+            // 바뀐 것이 없어도 보내서 끊긴 연결을 찾아냄. 끊긴 연결이 남아 있으면 작업이 방치된 것으로 보이지 않음
+            keepalive(watcher);
+        }
+    }
+
+    private void keepalive(Watcher watcher) {
+        try {
+            watcher.emitter.send(SseEmitter.event().comment("keepalive"));
+        } catch (Exception e) {
+            log.debug("Relayed status connection of job {} is gone.", watcher.jobId, e);
+            unfollow(watcher);
+            watcher.emitter.completeWithError(e);
+        }
+    }
+
+    private void finish(Watcher watcher) {
+        unfollow(watcher);
+        watcher.emitter.complete();
+    }
+
+    private void unfollow(Watcher watcher) {
+        List<Watcher> jobWatchers = watchers.get(watcher.jobId);
+        if (jobWatchers != null) {
+            jobWatchers.remove(watcher);
+        }
+    }
+
+    private void send(Watcher watcher, String name, Object data, MediaType mediaType) {
+        try {
+            watcher.emitter.send(SseEmitter.event().name(name).data(data, mediaType));
+        } catch (Exception e) {
+            log.debug("Failed to relay {} event for job {}. Dropping connection.", name, watcher.jobId, e);
+            unfollow(watcher);
+            watcher.emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.helper.library.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+// 인스턴스 사이에서 공유하는 작업 정보(JobRecord)와 결과 파일 보관소.
+// 실행 중인 작업 자체(SSE 연결, 진행 카운터, 행 기록)는 실행하는 인스턴스의 JobRegistry 에만 있고,
+// 다른 인스턴스는 여기서 읽은 정보로 상태 조회, 다운로드, 취소 요청을 처리
+public interface JobStore {
+
+    void create(JobRecord record);
+
+    // 제거된 작업이면 기록하지 않고 false
+    boolean update(JobRecord record);
+
+    // 없으면 null
+    JobRecord find(String jobId);
+
+    // 결과 파일을 다른 인스턴스도 읽을 수 있는 위치로 옮기고 그 경로를 반환
+    Path putResult(String jobId, Path resultFile) throws IOException;
+
+    // 없으면 null
+    Path resultFile(String jobId);
+
+    // 작업 정보와 결과 파일, 취소 요청, 조회 기록을 함께 삭제
+    void delete(String jobId);
+
+    // updatedAt 이 cutoff 보다 오래된 작업을 삭제하고 ID 를 반환. 실행하던 인스턴스가 종료되어 남은 작업도 정리됨
+    List<String> expire(long cutoff);
+
+    // 다른 인스턴스에서 상태를 조회하는 중임을 기록, 실행하는 인스턴스는 이 작업을 방치된 것으로 보지 않음
+    void markWatched(String jobId);
+
+    // 마지막으로 markWatched 한 시각, 없으면 0
+    long watchedAt(String jobId);
+
+    // 다른 인스턴스에서 받은 취소 요청, 실행하는 인스턴스가 확인해서 취소
+    void requestCancel(String jobId);
+
+    boolean isCancelRequested(String jobId);
+}
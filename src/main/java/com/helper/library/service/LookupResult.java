@@ -0,0 +1,41 @@
+package com.helper.library.service;
+
+import com.helper.library.dto.AladinItemDto;
+
+import java.util.Optional;
+
+// 한 ISBN 조회 결과. cached 는 API 호출 없이 캐시나 저장소에서 얻은 결과인지 여부
+public record LookupResult(Status status, AladinItemDto item, boolean cached) {
+
+    public enum Status {
+        FOUND, NOT_FOUND, FAILED, INVALID
+    }
+
+    public static LookupResult found(AladinItemDto item, boolean cached) {
+        return new LookupResult(Status.FOUND, item, cached);
+    }
+
+    public static LookupResult notFound(boolean cached) {
+        return new LookupResult(Status.NOT_FOUND, null, cached);
+    }
+
+    public static LookupResult failed() {
+        return new LookupResult(Status.FAILED, null, false);
+    }
+
+    public static LookupResult invalid() {
+        return new LookupResult(Status.INVALID, null, false);
+    }
+
+    // 같은 작업에서 이미 조회한 ISBN 을 다시 쓰는 경우 API 호출이 없었으므로 cached 로 표시
+    public LookupResult reused() {
+        return switch (status) {
+            case FOUND, NOT_FOUND -> new LookupResult(status, item, true);
+            default -> this;
+        };
+    }
+
+    public Optional<AladinItemDto> asOptional() {
+        return Optional.ofNullable(item);
+    }
+}
@@ -0,0 +1,58 @@
+package com.helper.library.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+
+// 진행 중인 작업의 진행률을 일정 주기로 모아서 전송. 전송은 가상 스레드에서 하므로 느린 클라이언트가 조회 작업을 막지 않음
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProgressBroadcaster {
+
+    private final JobRegistry jobRegistry;
+    private final ExecutorService taskExecutor;
+    private final AladinCircuitBreaker circuitBreaker;
+
+    private boolean lastPaused;
+
+    public record PauseEvent(boolean paused, long retryInSeconds) {
+    }
+
+    @Scheduled(fixedRateString = "${bookworm.jobs.progress-interval:PT0.5S}")
+    public void broadcast() {
+        // 알라딘 API 장애로 조회가 멈추거나 다시 시작되면 진행 중인 모든 작업에 알림
+        boolean paused = circuitBreaker.state() != AladinCircuitBreaker.State.CLOSED;
+        if (paused != lastPaused) {
+            lastPaused = paused;
+            PauseEvent event = new PauseEvent(paused, circuitBreaker.remainingOpenSeconds());
+            for (JobStatus status : jobRegistry.unfinishedJobs()) {
+                taskExecutor.execute(() -> status.send("paused", event, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        for (JobStatus status : jobRegistry.unfinishedJobs()) {
+            JobProgress progress = status.getProgress();
+            if (!progress.isStarted() || progress.completed() == status.getLastSentCompleted() || status.getEmitters().isEmpty()) {
+                continue;
+            }
+            // 이전 전송이 아직 끝나지 않았으면 이번 주기는 건너뜀
+            if (!status.tryBeginProgressSend()) {
+                continue;
+            }
+
+            JobProgress.Snapshot snapshot = progress.snapshot();
+            taskExecutor.execute(() -> {
+                try {
+                    status.send("progress", snapshot, MediaType.APPLICATION_JSON);
+                } finally {
+                    status.endProgressSend(snapshot.completed());
+                }
+            });
+        }
+    }
+}
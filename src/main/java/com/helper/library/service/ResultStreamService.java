@@ -0,0 +1,150 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.dto.AladinItemDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// 작업의 끝난 행을 NDJSON 또는 CSV 로 기록되는 대로 내보냄. 열 값은 엑셀 파일과 같은 BookColumn 규칙을 사용.
+// offset 부터 이어서 보내므로 연결이 끊기면 받은 행 수를 offset 으로 다시 요청하면 됨
+@Service
+@RequiredArgsConstructor
+public class ResultStreamService {
+
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv; charset=UTF-8");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    // 작업이 끝나고 남은 행을 모두 보낼 때까지 반환하지 않음. 다음 행을 기다려야 할 때만 flush
+    public int stream(JobResultLog resultLog, JobResultLog.Order order, int offset, Format format, OutputStream out)
+            throws IOException, InterruptedException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 행 사이 구분은 줄바꿈만 사용
+        generator.setRootValueSeparator(null);
+        List<BookColumn> columns = resultLog.projection().columns();
+        if (format == Format.CSV && offset == 0) {
+            writeCsvHeader(writer, columns);
+        }
+
+        int position = Math.max(0, offset);
+        int sent = 0;
+        while (true) {
+            if (!resultLog.isAvailable(order, position)) {
+                generator.flush();
+                writer.flush();
+            }
+            JobResultLog.Entry entry = resultLog.await(order, position);
+            if (entry == null) {
+                break;
+            }
+            if (format == Format.NDJSON) {
+                writeJsonRow(generator, entry, columns);
+            } else {
+                writeCsvRow(writer, entry, columns);
+            }
+            position++;
+            sent++;
+        }
+        generator.flush();
+        writer.flush();
+        return sent;
+    }
+
+    private void writeJsonRow(JsonGenerator generator, JobResultLog.Entry entry, List<BookColumn> columns) throws IOException {
+        LookupResult result = entry.result();
+        generator.writeStartObject();
+        generator.writeNumberField("seq", entry.sequence());
+        generator.writeNumberField("index", entry.index());
+        generator.writeStringField("isbn", entry.isbn());
+        generator.writeStringField("status", result.status().name());
+        generator.writeBooleanField("cached", result.cached());
+        if (result.item() != null) {
+            generator.writeObjectFieldStart("columns");
+            for (BookColumn column : columns) {
+                generator.writeFieldName(column.key());
+                Object value = column.valueOf(result.item());
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeCsvHeader(Writer writer, List<BookColumn> columns) throws IOException {
+        writer.write("seq,index,isbn,status");
+        for (BookColumn column : columns) {
+            writer.write(',');
+            writeCsvValue(writer, column.header());
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeCsvRow(Writer writer, JobResultLog.Entry entry, List<BookColumn> columns) throws IOException {
+        writer.write(Integer.toString(entry.sequence()));
+        writer.write(',');
+        writer.write(Integer.toString(entry.index()));
+        writer.write(',');
+        writeCsvValue(writer, entry.isbn());
+        writer.write(',');
+        writer.write(entry.result().status().name());
+        AladinItemDto item = entry.result().item();
+        for (BookColumn column : columns) {
+            writer.write(',');
+            Object value = item != null ? column.valueOf(item) : null;
+            if (value != null) {
+                writeCsvValue(writer, value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // 쉼표, 따옴표, 줄바꿈이 있는 값만 따옴표로 감쌈
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,202 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 여러 인스턴스가 같은 디렉터리(공유 볼륨)를 보고 작업 정보와 결과 파일을 공유.
+// 파일: <jobId>.json(작업 정보), <jobId>.xlsx(결과), <jobId>.watched(다른 인스턴스의 상태 조회 시각), <jobId>.cancel(취소 요청)
+// 작업 정보는 임시 파일에 쓴 뒤 rename 하므로 읽는 쪽은 잠그지 않고, 생성/갱신/삭제는 .lock 파일 잠금으로 인스턴스 간 직렬화.
+// 변경 감지는 읽는 쪽이 주기적으로 다시 읽는 방식 (네트워크 파일 시스템에서는 WatchService 이벤트가 오지 않을 수 있음)
+@Slf4j
+public class SharedFileJobStore implements JobStore {
+
+    private static final String RECORD_SUFFIX = ".json";
+    private static final String RESULT_SUFFIX = ".xlsx";
+    private static final String WATCHED_SUFFIX = ".watched";
+    private static final String CANCEL_SUFFIX = ".cancel";
+
+    // 같은 JVM 안에서 FileLock 을 겹쳐 잡으면 OverlappingFileLockException 이 나므로 먼저 프로세스 안에서 직렬화
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    private final Path directory;
+    private final Path lockFile;
+    private final ObjectMapper objectMapper;
+
+    public SharedFileJobStore(Path directory, ObjectMapper objectMapper) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.lockFile = directory.resolve(".lock");
+        this.objectMapper = objectMapper;
+        log.info("Sharing job state through {}", directory.toAbsolutePath());
+    }
+
+    @Override
+    public void create(JobRecord record) {
+        locked(() -> {
+            write(record);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean update(JobRecord record) {
+        return locked(() -> {
+            if (!Files.exists(recordFile(record.jobId()))) {
+                return false;
+            }
+            write(record);
+            return true;
+        });
+    }
+
+    @Override
+    public JobRecord find(String jobId) {
+        try {
+            return objectMapper.readValue(Files.readAllBytes(recordFile(jobId)), JobRecord.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read shared state of job {}", jobId, e);
+            return null;
+        }
+    }
+
+    @Override
+    public Path putResult(String jobId, Path resultFile) throws IOException {
+        Path target = directory.resolve(jobId + RESULT_SUFFIX);
+        move(resultFile, target);
+        return target;
+    }
+
+    @Override
+    public Path resultFile(String jobId) {
+        Path file = directory.resolve(jobId + RESULT_SUFFIX);
+        return Files.exists(file) ? file : null;
+    }
+
+    @Override
+    public void delete(String jobId) {
+        locked(() -> {
+            Files.deleteIfExists(recordFile(jobId));
+            Files.deleteIfExists(directory.resolve(jobId + RESULT_SUFFIX));
+            Files.deleteIfExists(directory.resolve(jobId + WATCHED_SUFFIX));
+            Files.deleteIfExists(directory.resolve(jobId + CANCEL_SUFFIX));
+            return null;
+        });
+    }
+
+    @Override
+    public List<String> expire(long cutoff) {
+        List<String> expired = new ArrayList<>();
+        try (DirectoryStream<Path> records = Files.newDirectoryStream(directory, "*" + RECORD_SUFFIX)) {
+            for (Path file : records) {
+                String fileName = file.getFileName().toString();
+                String jobId = fileName.substring(0, fileName.length() - RECORD_SUFFIX.length());
+                JobRecord record = find(jobId);
+                if (record == null || record.updatedAt() < cutoff) {
+                    delete(jobId);
+                    expired.add(jobId);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list shared job state in {}", directory, e);
+        }
+        return expired;
+    }
+
+    @Override
+    public void markWatched(String jobId) {
+        Path file = directory.resolve(jobId + WATCHED_SUFFIX);
+        try {
+            if (!Files.exists(recordFile(jobId))) {
+                return;
+            }
+            if (!Files.exists(file)) {
+                Files.createFile(file);
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to mark job {} as watched", jobId, e);
+        }
+    }
+
+    @Override
+    public long watchedAt(String jobId) {
+        try {
+            return Files.getLastModifiedTime(directory.resolve(jobId + WATCHED_SUFFIX)).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void requestCancel(String jobId) {
+        locked(() -> {
+            if (Files.exists(recordFile(jobId))) {
+                Files.write(directory.resolve(jobId + CANCEL_SUFFIX), new byte[0]);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean isCancelRequested(String jobId) {
+        return Files.exists(directory.resolve(jobId + CANCEL_SUFFIX));
+    }
+
+    private Path recordFile(String jobId) {
+        return directory.resolve(jobId + RECORD_SUFFIX);
+    }
+
+    // 읽는 쪽이 쓰다 만 파일을 보지 않도록 임시 파일에 쓴 뒤 교체
+    private void write(JobRecord record) throws IOException {
+        Path temp = Files.createTempFile(directory, record.jobId(), ".tmp");
+        try {
+            Files.write(temp, objectMapper.writeValueAsBytes(record));
+            move(temp, recordFile(record.jobId()));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // 임시 디렉터리와 공유 디렉터리가 다른 파일 시스템에 있는 경우
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private <T> T locked(IoAction<T> action) {
+        LOCK.lock();
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            return action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction<T> {
+        T run() throws IOException;
+    }
+}
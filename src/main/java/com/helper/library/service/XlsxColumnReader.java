@@ -0,0 +1,161 @@
+package com.helper.library.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// 워크북 전체를 메모리에 올리지 않고 첫 번째 시트의 XML 을 SAX 로 읽어 지정한 열의 값만 추출
+public final class XlsxColumnReader {
+
+    private XlsxColumnReader() {
+    }
+
+    public static List<String> readColumn(Path file, int columnIndex, int startRowIndex) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return new ArrayList<>();
+            }
+
+            ColumnHandler handler = new ColumnHandler(new ReadOnlySharedStringsTable(pkg), columnIndex, Math.max(0, startRowIndex));
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(handler);
+                parser.parse(new InputSource(sheet));
+            }
+            return handler.values;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Failed to read xlsx file: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class ColumnHandler extends DefaultHandler {
+        private final SharedStrings sharedStrings;
+        private final int columnIndex;
+        private final int startRowIndex;
+        private final List<String> values = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+
+        private int rowIndex = -1;
+        private int cellIndex = -1;
+        private String cellType;
+        private String rowValue;
+        private boolean inTargetCell;
+        private boolean collectingText;
+
+        ColumnHandler(SharedStrings sharedStrings, int columnIndex, int startRowIndex) {
+            this.sharedStrings = sharedStrings;
+            this.columnIndex = columnIndex;
+            this.startRowIndex = startRowIndex;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String ref = attributes.getValue("r");
+                    rowIndex = ref != null ? Integer.parseInt(ref) - 1 : rowIndex + 1;
+                    cellIndex = -1;
+                    rowValue = null;
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    cellIndex = ref != null ? columnIndexOf(ref) : cellIndex + 1;
+                    inTargetCell = cellIndex == columnIndex && rowIndex >= startRowIndex;
+                    cellType = attributes.getValue("t");
+                    text.setLength(0);
+                }
+                case "v", "t" -> collectingText = inTargetCell;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collectingText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> collectingText = false;
+                case "c" -> {
+                    if (inTargetCell) {
+                        rowValue = cellValue();
+                        inTargetCell = false;
+                    }
+                }
+                case "row" -> {
+                    if (rowIndex >= startRowIndex) {
+                        // 비어있는 행도 입력과 같은 위치에 결과가 나오도록 빈 값으로 채움
+                        while (values.size() < rowIndex - startRowIndex) {
+                            values.add("");
+                        }
+                        values.add(rowValue != null ? rowValue : "");
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private String cellValue() {
+            if (text.isEmpty()) {
+                return "";
+            }
+            String raw = text.toString();
+            if (cellType == null || "n".equals(cellType)) {
+                return formatNumber(raw);
+            }
+            return switch (cellType) {
+                case "s" -> sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString().trim();
+                case "inlineStr", "str" -> raw.trim();
+                default -> "";
+            };
+        }
+
+        private static String formatNumber(String raw) {
+            for (int i = 0; i < raw.length(); i++) {
+                if (!Character.isDigit(raw.charAt(i))) {
+                    return new BigDecimal(raw.trim()).setScale(0, RoundingMode.HALF_EVEN).toPlainString();
+                }
+            }
+            return raw;
+        }
+
+        private static int columnIndexOf(String cellRef) {
+            int column = 0;
+            for (int i = 0; i < cellRef.length(); i++) {
+                char c = cellRef.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.helper.library.service;
+
+import com.helper.library.config.ResilienceProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AladinCircuitBreakerTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 최소 호출 수를 채우기 전에는 모두 실패해도 차단하지 않음
+    @Test
+    void opensWhenFailureRateReachesThresholdAfterMinimumCalls() {
+        AladinCircuitBreaker breaker = breaker(4, 4, 0.5, Duration.ofSeconds(30), Duration.ofSeconds(5));
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.CLOSED);
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.OPEN);
+        assertThat(breaker.openedCount()).isEqualTo(1);
+        assertThat(breaker.remainingOpenSeconds()).isBetween(28L, 30L);
+    }
+
+    // 실패 비율은 최근 windowSize 번의 호출로만 계산
+    @Test
+    void countsOnlyOutcomesInsideWindow() {
+        AladinCircuitBreaker breaker = breaker(4, 4, 0.75, Duration.ofSeconds(30), Duration.ofSeconds(5));
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        // 앞의 두 실패는 창 밖으로 밀려남
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.CLOSED);
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void givesUpWaitingAfterMaxPause() throws InterruptedException {
+        AladinCircuitBreaker breaker = breaker(1, 1, 1.0, Duration.ofSeconds(30), Duration.ofMillis(100));
+        breaker.onFailure();
+
+        long started = System.nanoTime();
+        assertThat(breaker.awaitPermission()).isFalse();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(90);
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.OPEN);
+    }
+
+    // 차단 시간이 지나면 한 조회만 시험 호출하고, 나머지는 시험 결과를 기다림
+    @Test
+    void closesAfterSuccessfulProbe() throws Exception {
+        AladinCircuitBreaker breaker = breaker(1, 1, 1.0, Duration.ofMillis(100), Duration.ofSeconds(5));
+        breaker.onFailure();
+
+        long started = System.nanoTime();
+        assertThat(breaker.awaitPermission()).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(90);
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.HALF_OPEN);
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> awaitPermission(breaker), executor);
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+
+        breaker.onSuccess();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.CLOSED);
+        assertThat(breaker.openedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reopensAfterFailedProbe() throws InterruptedException {
+        AladinCircuitBreaker breaker = breaker(1, 1, 1.0, Duration.ofMillis(100), Duration.ofSeconds(5));
+        breaker.onFailure();
+        assertThat(breaker.awaitPermission()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.OPEN);
+        assertThat(breaker.openedCount()).isEqualTo(2);
+        // 다시 차단된 뒤에도 차단 시간이 지나면 시험 호출
+        assertThat(breaker.awaitPermission()).isTrue();
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.HALF_OPEN);
+    }
+
+    // 시험 호출이 중단되면 기다리던 다른 조회가 대신 시험 호출
+    @Test
+    void ignoredProbeLetsAnotherCallerProbe() throws Exception {
+        AladinCircuitBreaker breaker = breaker(1, 1, 1.0, Duration.ofMillis(50), Duration.ofSeconds(5));
+        breaker.onFailure();
+        assertThat(breaker.awaitPermission()).isTrue();
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> awaitPermission(breaker), executor);
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+
+        breaker.onIgnored();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.HALF_OPEN);
+    }
+
+    // 차단 전에 시작된 호출의 결과는 차단 상태를 바꾸지 않음
+    @Test
+    void ignoresOutcomesWhileOpen() {
+        AladinCircuitBreaker breaker = breaker(1, 1, 1.0, Duration.ofSeconds(30), Duration.ofSeconds(5));
+        breaker.onFailure();
+
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(AladinCircuitBreaker.State.OPEN);
+        assertThat(breaker.openedCount()).isEqualTo(1);
+    }
+
+    private static boolean awaitPermission(AladinCircuitBreaker breaker) {
+        try {
+            return breaker.awaitPermission();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static AladinCircuitBreaker breaker(int windowSize, int minimumCalls, double threshold, Duration openDuration, Duration maxPause) {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setCircuitWindowSize(windowSize);
+        properties.setCircuitMinimumCalls(minimumCalls);
+        properties.setCircuitFailureRateThreshold(threshold);
+        properties.setCircuitOpenDuration(openDuration);
+        properties.setMaxPause(maxPause);
+        return new AladinCircuitBreaker(properties);
+    }
+}
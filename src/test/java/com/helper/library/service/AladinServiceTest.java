@@ -0,0 +1,302 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.helper.library.config.AladinProperties;
+import com.helper.library.config.CacheProperties;
+import com.helper.library.config.LookupProperties;
+import com.helper.library.config.ResilienceProperties;
+import com.helper.library.config.StoreProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+// 알라딘 API 응답별 재시도 여부와 circuit breaker 기록을 확인. 재시도 대기 시간은 1ms 로 줄임
+class AladinServiceTest {
+
+    private static final String ISBN = "9780306406157";
+    private static final String URL = "http://aladin.test/ItemLookUp.aspx?ttbkey=key&itemIdType=ISBN13&ItemId=" + ISBN
+            + "&output=xml&Version=20131101&OptResult=packing,subinfo";
+
+    private static final String FOUND = """
+            <?xml version="1.0" encoding="utf-8"?>
+            <object xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx">
+              <totalResults>1</totalResults>
+              <item itemId="300000001">
+                <title>책벌레</title>
+                <isbn13>9780306406157</isbn13>
+              </item>
+            </object>
+            """;
+
+    private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final ResilienceProperties resilienceProperties = new ResilienceProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AladinCircuitBreaker circuitBreaker;
+    private IsbnLookupCache lookupCache;
+    private AladinService aladinService;
+
+    @BeforeEach
+    void setUp() {
+        resilienceProperties.setMaxAttempts(3);
+        resilienceProperties.setInitialBackoff(Duration.ofMillis(1));
+        resilienceProperties.setMaxBackoff(Duration.ofSeconds(2));
+        resilienceProperties.setCircuitMinimumCalls(100);
+        resilienceProperties.setCircuitWindowSize(100);
+        create();
+    }
+
+    @AfterEach
+    void shutdown() {
+        taskExecutor.shutdownNow();
+    }
+
+    @Test
+    void retriesServerErrorThenSucceeds() {
+        expect(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        expect(withSuccess(FOUND, MediaType.APPLICATION_XML));
+
+        LookupResult result = aladinService.lookup(ISBN, "key");
+
+        server.verify();
+        assertThat(result.status()).isEqualTo(LookupResult.Status.FOUND);
+        assertThat(result.item().getTitle()).isEqualTo("책벌레");
+        assertThat(aladinService.lookupStats().apiCalls()).isEqualTo(2);
+        assertThat(aladinService.lookupStats().retries()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsLatencyByOutcome() {
+        expect(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        expect(withSuccess(FOUND, MediaType.APPLICATION_XML));
+
+        aladinService.lookup(ISBN, "key");
+
+        assertThat(meterRegistry.get("bookworm.aladin.lookup").tag("outcome", "http_error").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bookworm.aladin.lookup").tag("outcome", "found").timer().count()).isEqualTo(1);
+        // 아직 나오지 않은 결과 종류의 타이머도 미리 등록됨
+        assertThat(meterRegistry.get("bookworm.aladin.lookup").timers()).hasSize(6);
+    }
+
+    // Retry-After 가 백오프보다 길면 그만큼 기다린 뒤 재시도
+    @Test
+    void waitsForRetryAfterOnTooManyRequests() {
+        expect(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(retryAfter("1")));
+        expect(withSuccess(FOUND, MediaType.APPLICATION_XML));
+
+        long started = System.nanoTime();
+        LookupResult result = aladinService.lookup(ISBN, "key");
+
+        server.verify();
+        assertThat(result.status()).isEqualTo(LookupResult.Status.FOUND);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(1000);
+    }
+
+    @Test
+    void retriesIoErrorAndMalformedResponse() {
+        expect(withException(new SocketTimeoutException("Read timed out")));
+        expect(withSuccess("<html><body>Service Unavailable", MediaType.TEXT_HTML));
+        expect(withSuccess(FOUND, MediaType.APPLICATION_XML));
+
+        assertThat(aladinService.lookup(ISBN, "key").status()).isEqualTo(LookupResult.Status.FOUND);
+
+        server.verify();
+        assertThat(aladinService.lookupStats().retries()).isEqualTo(2);
+    }
+
+    @Test
+    void retriesThrottlingErrorCode() {
+        expect(withSuccess(error("10"), MediaType.APPLICATION_XML));
+        expect(withSuccess(FOUND, MediaType.APPLICATION_XML));
+
+        assertThat(aladinService.lookup(ISBN, "key").status()).isEqualTo(LookupResult.Status.FOUND);
+
+        server.verify();
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        expect(withStatus(HttpStatus.INTERNAL_SERVER_ERROR), ExpectedCount.times(3));
+
+        assertThat(aladinService.lookup(ISBN, "key").status()).isEqualTo(LookupResult.Status.FAILED);
+
+        server.verify();
+        assertThat(aladinService.lookupStats().apiCalls()).isEqualTo(3);
+        assertThat(aladinService.lookupStats().retries()).isEqualTo(2);
+        assertThat(lookupCache.get(ISBN)).isEmpty();
+    }
+
+    // 4xx 는 재시도해도 같은 결과이고, 알라딘 장애가 아니므로 circuit breaker 에는 성공으로 기록
+    @Test
+    void doesNotRetryClientError() {
+        resilienceProperties.setCircuitMinimumCalls(1);
+        resilienceProperties.setCircuitWindowSize(1);
+        expect(withStatus(HttpStatus.BAD_REQUEST));
+
+        assertThat(aladinService.lookup(ISBN, "key").status()).isEqualTo(LookupResult.Status.FAILED);
+
+        server.verify();
+        assertThat(aladinService.lookupStats().retries()).isZero();
+        assertThat(circuitBreaker.state()).isEqualTo(AladinCircuitBreaker.State.CLOSED);
+    }
+
+    // 잘못된 ttbkey 등의 오류 응답은 재시도하지 않고, 다른 키로는 조회될 수 있으므로 캐시하지도 않음
+    @Test
+    void doesNotRetryOrCacheOtherErrorCodes() {
+        expect(withSuccess(error("8"), MediaType.APPLICATION_XML));
+        expect(withSuccess(FOUND, MediaType.APPLICATION_XML));
+
+        assertThat(aladinService.lookup(ISBN, "key").status()).isEqualTo(LookupResult.Status.FAILED);
+        assertThat(lookupCache.get(ISBN)).isEmpty();
+
+        assertThat(aladinService.lookup(ISBN, "key").status()).isEqualTo(LookupResult.Status.FOUND);
+        server.verify();
+        assertThat(aladinService.lookupStats().retries()).isZero();
+    }
+
+    @Test
+    void cachesNotFound() {
+        expect(withSuccess("""
+                <?xml version="1.0" encoding="utf-8"?>
+                <object xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx"><totalResults>0</totalResults></object>
+                """, MediaType.APPLICATION_XML));
+
+        assertThat(aladinService.lookup(ISBN, "key").status()).isEqualTo(LookupResult.Status.NOT_FOUND);
+        LookupResult cached = aladinService.lookup(ISBN, "key");
+
+        server.verify();
+        assertThat(cached.status()).isEqualTo(LookupResult.Status.NOT_FOUND);
+        assertThat(cached.cached()).isTrue();
+    }
+
+    // 차단된 동안에는 API 를 호출하지 않고, maxPause 가 지나면 실패로 끝냄
+    @Test
+    void failsWithoutCallingApiWhileCircuitIsOpen() {
+        resilienceProperties.setMaxAttempts(1);
+        resilienceProperties.setCircuitMinimumCalls(1);
+        resilienceProperties.setCircuitWindowSize(1);
+        resilienceProperties.setCircuitOpenDuration(Duration.ofSeconds(30));
+        resilienceProperties.setMaxPause(Duration.ofMillis(50));
+        expect(withStatus(HttpStatus.BAD_GATEWAY));
+
+        assertThat(aladinService.lookup(ISBN, "key").status()).isEqualTo(LookupResult.Status.FAILED);
+        assertThat(circuitBreaker.state()).isEqualTo(AladinCircuitBreaker.State.OPEN);
+
+        assertThat(aladinService.lookup(ISBN, "key").status()).isEqualTo(LookupResult.Status.FAILED);
+
+        server.verify();
+        assertThat(aladinService.lookupStats().apiCalls()).isEqualTo(1);
+    }
+
+    // 같은 조회를 기다리는 작업 중 하나가 취소해도 다른 작업은 결과를 받음
+    @Test
+    void keepsSharedLookupWhileAnotherCallerWaits() throws Exception {
+        expect(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(retryAfter("1")));
+        expect(withSuccess(FOUND, MediaType.APPLICATION_XML));
+
+        CompletableFuture<LookupResult> first = aladinService.lookupAsync(ISBN, "key");
+        CompletableFuture<LookupResult> second = aladinService.lookupAsync(ISBN, "key");
+        first.cancel(true);
+
+        assertThat(second.get(5, TimeUnit.SECONDS).status()).isEqualTo(LookupResult.Status.FOUND);
+        server.verify();
+        assertThat(aladinService.lookupStats().coalescedLookups()).isEqualTo(1);
+    }
+
+    // 기다리는 작업이 모두 취소되면 재시도 대기 중인 조회도 멈춤
+    @Test
+    void stopsRetryingWhenNoCallerIsWaiting() throws Exception {
+        expect(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(retryAfter("2")));
+
+        CompletableFuture<LookupResult> first = aladinService.lookupAsync(ISBN, "key");
+        CompletableFuture<LookupResult> second = aladinService.lookupAsync(ISBN, "key");
+        awaitRetry();
+        first.cancel(true);
+        second.cancel(true);
+
+        long started = System.nanoTime();
+        while (aladinService.lookupStats().inFlight() > 0) {
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1000);
+            Thread.sleep(10);
+        }
+        server.verify();
+        assertThat(aladinService.lookupStats().apiCalls()).isEqualTo(1);
+        assertThat(circuitBreaker.state()).isEqualTo(AladinCircuitBreaker.State.CLOSED);
+
+        // 멈춘 조회와 상관없이 다음 조회는 새로 호출
+        server.reset();
+        expect(withSuccess(FOUND, MediaType.APPLICATION_XML));
+        assertThat(aladinService.lookupAsync(ISBN, "key").get(5, TimeUnit.SECONDS).status()).isEqualTo(LookupResult.Status.FOUND);
+    }
+
+    private void awaitRetry() throws InterruptedException {
+        long started = System.nanoTime();
+        while (aladinService.lookupStats().retries() == 0) {
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(5000);
+            Thread.sleep(10);
+        }
+    }
+
+    private static HttpHeaders retryAfter(String seconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, seconds);
+        return headers;
+    }
+
+    private void expect(ResponseCreator response) {
+        expect(response, ExpectedCount.once());
+    }
+
+    private void expect(ResponseCreator response, ExpectedCount count) {
+        server.expect(count, requestTo(URL)).andRespond(response);
+    }
+
+    private void create() {
+        AladinProperties aladinProperties = new AladinProperties();
+        aladinProperties.setItemLookupUrl("http://aladin.test/ItemLookUp.aspx");
+        LookupProperties lookupProperties = new LookupProperties();
+        lookupProperties.setPermitsPerSecond(10_000);
+        lookupProperties.setBurst(10_000);
+        StoreProperties storeProperties = new StoreProperties();
+        storeProperties.setEnabled(false);
+        circuitBreaker = new AladinCircuitBreaker(resilienceProperties);
+        lookupCache = new IsbnLookupCache(new CacheProperties());
+        aladinService = new AladinService(restTemplate, aladinProperties, new AladinXmlParser(new XmlMapper()),
+                new AladinRateLimiter(lookupProperties), circuitBreaker, resilienceProperties, lookupCache,
+                new BookMetadataStore(storeProperties, new ObjectMapper()), taskExecutor, meterRegistry);
+    }
+
+    private static String error(String code) {
+        return """
+                <?xml version="1.0" encoding="utf-8"?>
+                <error xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx">
+                  <errorCode>%s</errorCode>
+                  <errorMessage>오류</errorMessage>
+                </error>
+                """.formatted(code);
+    }
+}
@@ -0,0 +1,165 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.helper.library.dto.AladinItemDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AladinXmlParserTest {
+
+    // ItemLookUp.aspx (output=xml, OptResult=packing,subinfo) 응답 형식. subInfo 뒤에 있는 요소도 읽는지 보려고 isbn13 을 맨 뒤에 둠
+    private static final String ITEM_RESPONSE = """
+            <?xml version="1.0" encoding="utf-8"?>
+            <object xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx">
+              <version>20131101</version>
+              <title>알라딘 상품정보 - 책벌레</title>
+              <totalResults>1</totalResults>
+              <query>isbn13=9780306406157</query>
+              <searchCategoryName />
+              <item itemId="300000001">
+                <title>책벌레 - 도서관 이야기</title>
+                <link>https://www.aladin.co.kr/shop/wproduct.aspx?ItemId=300000001&amp;partner=openAPI</link>
+                <author>홍길동 (지은이)</author>
+                <pubDate>2024-04-15</pubDate>
+                <description>오래된 도서관 이야기</description>
+                <isbn>0306406152</isbn>
+                <priceSales>15120</priceSales>
+                <priceStandard>16800</priceStandard>
+                <mallType>BOOK</mallType>
+                <stockStatus />
+                <cover>https://image.aladin.co.kr/product/coversum/1.jpg</cover>
+                <categoryId>50993</categoryId>
+                <categoryName>국내도서&gt;소설/시/희곡&gt;한국소설</categoryName>
+                <publisher>책벌레출판사</publisher>
+                <subInfo>
+                  <subTitle>도서관 이야기</subTitle>
+                  <originalTitle />
+                  <itemPage>320</itemPage>
+                  <packing>
+                    <styleDesc>양장본</styleDesc>
+                    <weight>520</weight>
+                  </packing>
+                </subInfo>
+                <isbn13>9780306406157</isbn13>
+              </item>
+            </object>
+            """;
+
+    private final AladinXmlParser parser = new AladinXmlParser(new XmlMapper());
+
+    @Test
+    void parsesItemResponse() {
+        AladinXmlParser.Result result = parse(ITEM_RESPONSE, ColumnProjection.all());
+
+        assertThat(result.kind()).isEqualTo(AladinXmlParser.Kind.FOUND);
+        AladinItemDto item = result.item();
+        assertThat(item.getTitle()).isEqualTo("책벌레 - 도서관 이야기");
+        assertThat(item.getLink()).isEqualTo("https://www.aladin.co.kr/shop/wproduct.aspx?ItemId=300000001&partner=openAPI");
+        assertThat(item.getAuthor()).isEqualTo("홍길동 (지은이)");
+        assertThat(item.getIsbn()).isEqualTo("0306406152");
+        assertThat(item.getIsbn13()).isEqualTo("9780306406157");
+        assertThat(item.getPriceSales()).isEqualTo(15120);
+        assertThat(item.getPriceStandard()).isEqualTo(16800);
+        assertThat(item.getCategoryId()).isEqualTo(50993L);
+        assertThat(item.getCategoryName()).isEqualTo("국내도서>소설/시/희곡>한국소설");
+        assertThat(item.getPublisher()).isEqualTo("책벌레출판사");
+        assertThat(item.getSubInfo().getSubTitle()).isEqualTo("도서관 이야기");
+        assertThat(item.getSubInfo().getOriginalTitle()).isEmpty();
+        assertThat(item.getSubInfo().getItemPage()).isEqualTo(320);
+    }
+
+    @Test
+    void reportsNotFoundWhenResponseHasNoItem() {
+        String xml = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <object xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx">
+                  <version>20131101</version>
+                  <totalResults>0</totalResults>
+                  <query>isbn13=9780306406157</query>
+                  <searchCategoryName />
+                </object>
+                """;
+
+        AladinXmlParser.Result result = parse(xml, ColumnProjection.all());
+
+        assertThat(result.kind()).isEqualTo(AladinXmlParser.Kind.NOT_FOUND);
+        assertThat(result.item()).isNull();
+    }
+
+    @Test
+    void reportsErrorDocument() {
+        String xml = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <error xmlns="http://www.aladin.co.kr/ttb/apiguide.aspx">
+                  <errorCode> 10 </errorCode>
+                  <errorMessage>1일 쿼리 허용량을 초과하였습니다.</errorMessage>
+                </error>
+                """;
+
+        AladinXmlParser.Result result = parse(xml, ColumnProjection.all());
+
+        assertThat(result.kind()).isEqualTo(AladinXmlParser.Kind.ERROR);
+        assertThat(result.errorCode()).isEqualTo("10");
+        assertThat(result.message()).isEqualTo("1일 쿼리 허용량을 초과하였습니다.");
+    }
+
+    // 응답이 중간에 끊긴 경우
+    @Test
+    void reportsTruncatedStreamAsMalformed() {
+        String truncated = ITEM_RESPONSE.substring(0, ITEM_RESPONSE.indexOf("<publisher>") + 5);
+
+        AladinXmlParser.Result result = parse(truncated, ColumnProjection.all());
+
+        assertThat(result.kind()).isEqualTo(AladinXmlParser.Kind.MALFORMED);
+        assertThat(result.item()).isNull();
+    }
+
+    @Test
+    void reportsNonXmlAndEmptyBodiesAsMalformed() {
+        assertThat(parse("<html><body>Service Unavailable", ColumnProjection.all()).kind()).isEqualTo(AladinXmlParser.Kind.MALFORMED);
+        assertThat(parse("Service Unavailable", ColumnProjection.all()).kind()).isEqualTo(AladinXmlParser.Kind.MALFORMED);
+        assertThat(parse("", ColumnProjection.all()).kind()).isEqualTo(AladinXmlParser.Kind.MALFORMED);
+        assertThat(parser.parse(null).kind()).isEqualTo(AladinXmlParser.Kind.MALFORMED);
+    }
+
+    @Test
+    void reportsInvalidNumberAsMalformed() {
+        String xml = ITEM_RESPONSE.replace("<priceSales>15120</priceSales>", "<priceSales>15,120</priceSales>");
+
+        assertThat(parse(xml, ColumnProjection.all()).kind()).isEqualTo(AladinXmlParser.Kind.MALFORMED);
+    }
+
+    // 열 목록에 없는 요소는 하위 요소까지 통째로 건너뛰고, 그 뒤의 요소는 그대로 읽음
+    @Test
+    void skipsElementsOutsideProjection() {
+        AladinXmlParser.Result result = parse(ITEM_RESPONSE, ColumnProjection.parse("isbn13,title"));
+
+        assertThat(result.kind()).isEqualTo(AladinXmlParser.Kind.FOUND);
+        AladinItemDto item = result.item();
+        assertThat(item.getTitle()).isEqualTo("책벌레 - 도서관 이야기");
+        assertThat(item.getIsbn13()).isEqualTo("9780306406157");
+        assertThat(item.getSubInfo()).isNull();
+        assertThat(item.getAuthor()).isNull();
+        assertThat(item.getDescription()).isNull();
+        assertThat(item.getLink()).isNull();
+        assertThat(item.getPriceSales()).isZero();
+    }
+
+    @Test
+    void readsSubInfoWhenPageColumnIsProjected() {
+        AladinXmlParser.Result result = parse(ITEM_RESPONSE, ColumnProjection.parse("itemPage"));
+
+        assertThat(result.kind()).isEqualTo(AladinXmlParser.Kind.FOUND);
+        assertThat(result.item().getSubInfo().getItemPage()).isEqualTo(320);
+        assertThat(result.item().getTitle()).isNull();
+        assertThat(result.item().getIsbn13()).isNull();
+    }
+
+    private AladinXmlParser.Result parse(String xml, ColumnProjection projection) {
+        return parser.parse(new ByteArrayInputStream(xml.strip().getBytes(StandardCharsets.UTF_8)), projection);
+    }
+}
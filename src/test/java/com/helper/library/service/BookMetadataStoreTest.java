@@ -0,0 +1,129 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.config.StoreProperties;
+import com.helper.library.dto.AladinItemDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookMetadataStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    private BookMetadataStore store;
+
+    @AfterEach
+    void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void recoversRecordsAfterReopen() throws IOException {
+        store = open();
+        store.put("9780306406157", item("First"));
+        store.put("9780804429573", item("Second"));
+        store.put("9780306406157", item("First, revised"));
+        store.close();
+
+        store = open();
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get("9780306406157")).map(AladinItemDto::getTitle).contains("First, revised");
+        assertThat(store.get("9780804429573")).map(AladinItemDto::getTitle).contains("Second");
+    }
+
+    // 레코드를 쓰는 도중에 종료되면 길이만큼 본문이 없음. 잘린 레코드는 버리고 그 자리부터 다시 씀
+    @Test
+    void truncatesPartialTrailingRecord() throws IOException {
+        store = open();
+        store.put("9780306406157", item("First"));
+        store.close();
+        Path file = storeFile();
+        long validLength = Files.size(file);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND))) {
+            out.writeInt(200);
+            out.writeLong(System.currentTimeMillis());
+            out.write(13);
+            out.write("97808044".getBytes());
+        }
+
+        store = open();
+
+        assertThat(Files.size(file)).isEqualTo(validLength);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.get("9780306406157")).map(AladinItemDto::getTitle).contains("First");
+
+        store.put("9780804429573", item("Second"));
+        store.close();
+        store = open();
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get("9780804429573")).map(AladinItemDto::getTitle).contains("Second");
+    }
+
+    @Test
+    void truncatesTornLengthField() throws IOException {
+        store = open();
+        store.put("9780306406157", item("First"));
+        store.close();
+        Path file = storeFile();
+        long validLength = Files.size(file);
+        Files.write(file, new byte[]{0, 0}, StandardOpenOption.APPEND);
+
+        store = open();
+
+        assertThat(Files.size(file)).isEqualTo(validLength);
+        assertThat(store.get("9780306406157")).map(AladinItemDto::getTitle).contains("First");
+    }
+
+    // 본문이 손상된 레코드는 읽을 때 CRC 로 걸러내고 인덱스에서 제거
+    @Test
+    void skipsRecordWithBadChecksum() throws IOException {
+        store = open();
+        store.put("9780306406157", item("First"));
+        store.close();
+        Path file = storeFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'#'}), Files.size(file) - 2);
+        }
+
+        store = open();
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.get("9780306406157")).isEmpty();
+        assertThat(store.size()).isZero();
+    }
+
+    private BookMetadataStore open() throws IOException {
+        StoreProperties properties = new StoreProperties();
+        properties.setPath(storeFile().toString());
+        BookMetadataStore opened = new BookMetadataStore(properties, objectMapper);
+        opened.open();
+        return opened;
+    }
+
+    private Path storeFile() {
+        return directory.resolve("books.log");
+    }
+
+    private static AladinItemDto item(String title) {
+        AladinItemDto item = new AladinItemDto();
+        item.setTitle(title);
+        return item;
+    }
+}
@@ -0,0 +1,65 @@
+package com.helper.library.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvColumnReaderTest {
+
+    @Test
+    void readsSelectedColumnFromStartRow() throws IOException {
+        String csv = "title,isbn\nA,9780306406157\nB, 0306406152 \n";
+
+        assertThat(read(csv, 1, 1)).containsExactly("9780306406157", "0306406152");
+        assertThat(read(csv, 0, 0)).containsExactly("title", "A", "B");
+    }
+
+    @Test
+    void keepsCommasInsideQuotedFields() throws IOException {
+        String csv = "\"Smith, John\",9780306406157\n\"a,b,c\",\"0306406152\"\n";
+
+        assertThat(read(csv, 0, 0)).containsExactly("Smith, John", "a,b,c");
+        assertThat(read(csv, 1, 0)).containsExactly("9780306406157", "0306406152");
+    }
+
+    @Test
+    void unescapesDoubledQuotes() throws IOException {
+        String csv = "\"He said \"\"hi\"\"\",9780306406157\n\"\"\"\",0306406152\n";
+
+        assertThat(read(csv, 0, 0)).containsExactly("He said \"hi\"", "\"");
+        assertThat(read(csv, 1, 0)).containsExactly("9780306406157", "0306406152");
+    }
+
+    // 따옴표 안의 줄바꿈은 행을 나누지 않고 값에 그대로 남음
+    @Test
+    void keepsLineBreaksInsideQuotedFields() throws IOException {
+        String csv = "\"first\r\nsecond\",9780306406157\r\n\"x\ny\",0306406152\r\n";
+
+        assertThat(read(csv, 0, 0)).containsExactly("first\r\nsecond", "x\ny");
+        assertThat(read(csv, 1, 0)).containsExactly("9780306406157", "0306406152");
+    }
+
+    @Test
+    void handlesBomCrLfAndMissingTrailingNewline() throws IOException {
+        String csv = "\uFEFFisbn,title\r\n9780306406157,A\r\n0306406152,\"B\"";
+
+        assertThat(read(csv, 0, 1)).containsExactly("9780306406157", "0306406152");
+        assertThat(read(csv, 1, 1)).containsExactly("A", "B");
+    }
+
+    @Test
+    void returnsEmptyValueForMissingColumn() throws IOException {
+        String csv = "9780306406157\n0306406152,extra\n";
+
+        assertThat(read(csv, 1, 0)).containsExactly("", "extra");
+    }
+
+    private static List<String> read(String csv, int columnIndex, int startRowIndex) throws IOException {
+        return CsvColumnReader.readColumn(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), columnIndex, startRowIndex);
+    }
+}
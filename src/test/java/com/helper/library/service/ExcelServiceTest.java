@@ -0,0 +1,106 @@
+package com.helper.library.service;
+
+import com.helper.library.config.LookupProperties;
+import com.helper.library.config.OutputProperties;
+import com.helper.library.dto.AladinItemDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExcelServiceTest {
+
+    private static final String FOUND_ISBN = "9780306406157";
+    private static final String MISSING_ISBN = "080442957X";
+    private static final String FAILED_ISBN = "979-11-0000000-7";
+
+    private final AladinService aladinService = mock(AladinService.class);
+    private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExcelService excelService = new ExcelService(new IsbnLookupEngine(aladinService, taskExecutor, new LookupProperties()),
+            taskExecutor, new OutputProperties(), new SimpleMeterRegistry());
+
+    @AfterEach
+    void shutdown() {
+        taskExecutor.shutdownNow();
+    }
+
+    // ISBN13 열을 고르지 않으면 조회 결과 옆에 입력 ISBN 을 표시해서 도서 정보가 없는 행도 어느 ISBN 인지 알 수 있음
+    @Test
+    void writesInputIsbnNextToStatusWhenIsbn13IsNotProjected() throws Exception {
+        List<List<String>> rows = build(ColumnProjection.parse("title"));
+
+        assertThat(rows).containsExactly(
+                List.of("제목", "조회 결과", "입력 ISBN"),
+                List.of("책벌레", "조회 성공", FOUND_ISBN),
+                List.of("", "검색 결과 없음", MISSING_ISBN),
+                List.of("", "조회 실패 (다시 시도 필요)", FAILED_ISBN),
+                List.of("", "잘못된 ISBN", "abc"));
+    }
+
+    @Test
+    void writesInputIsbnInIsbn13ColumnWhenProjected() throws Exception {
+        List<List<String>> rows = build(ColumnProjection.parse("title,isbn13"));
+
+        assertThat(rows).containsExactly(
+                List.of("제목", "ISBN13", "조회 결과"),
+                List.of("책벌레", FOUND_ISBN, "조회 성공"),
+                List.of("", MISSING_ISBN, "검색 결과 없음"),
+                List.of("", FAILED_ISBN, "조회 실패 (다시 시도 필요)"),
+                List.of("", "abc", "잘못된 ISBN"));
+    }
+
+    private List<List<String>> build(ColumnProjection projection) throws Exception {
+        AladinItemDto item = new AladinItemDto();
+        item.setTitle("책벌레");
+        item.setIsbn13(FOUND_ISBN);
+        when(aladinService.lookupAsync(eq(FOUND_ISBN), anyString(), any(ColumnProjection.class)))
+                .thenReturn(CompletableFuture.completedFuture(LookupResult.found(item, false)));
+        when(aladinService.lookupAsync(eq("9780804429573"), anyString(), any(ColumnProjection.class)))
+                .thenReturn(CompletableFuture.completedFuture(LookupResult.notFound(false)));
+        when(aladinService.lookupAsync(eq("9791100000007"), anyString(), any(ColumnProjection.class)))
+                .thenReturn(CompletableFuture.completedFuture(LookupResult.failed()));
+
+        Path file = excelService.createExcelFile(IsbnFeed.of(List.of(FOUND_ISBN, MISSING_ISBN, FAILED_ISBN, "abc")), "key", projection,
+                new JobProgress(), JobCheckpoint.none(), JobResultLog.none()).get(10, TimeUnit.SECONDS);
+        try {
+            return read(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<List<String>> read(Path file) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                List<String> values = new ArrayList<>();
+                for (int i = 0; i < sheet.getRow(0).getLastCellNum(); i++) {
+                    values.add(row.getCell(i) != null ? row.getCell(i).toString() : "");
+                }
+                rows.add(values);
+            }
+        }
+        return rows;
+    }
+}
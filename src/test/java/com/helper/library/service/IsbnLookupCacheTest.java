@@ -0,0 +1,109 @@
+package com.helper.library.service;
+
+import com.helper.library.config.CacheProperties;
+import com.helper.library.dto.AladinItemDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsbnLookupCacheTest {
+
+    @Test
+    void expiresFoundEntryAfterTtl() throws InterruptedException {
+        IsbnLookupCache cache = cache(10, Duration.ofMillis(50), Duration.ofHours(1));
+        cache.putFound("isbn-1", item("A"));
+
+        assertThat(cache.get("isbn-1")).hasValueSatisfying(entry -> assertThat(entry.item().getTitle()).isEqualTo("A"));
+
+        Thread.sleep(80);
+
+        assertThat(cache.get("isbn-1")).isEmpty();
+        assertThat(cache.stats()).isEqualTo(new IsbnLookupCache.Stats(0, 10, 1, 1, 0, 1));
+    }
+
+    // "검색 결과 없음" 은 도서 정보와 다른 기간 동안 보관
+    @Test
+    void expiresNegativeEntryAfterNegativeTtl() throws InterruptedException {
+        IsbnLookupCache cache = cache(10, Duration.ofHours(1), Duration.ofMillis(50));
+        cache.putFound("found", item("A"));
+        cache.putNotFound("missing");
+
+        assertThat(cache.get("missing")).hasValueSatisfying(entry -> assertThat(entry.isNegative()).isTrue());
+
+        Thread.sleep(80);
+
+        assertThat(cache.get("missing")).isEmpty();
+        assertThat(cache.get("found")).isPresent();
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    // 최근에 읽은 항목은 남기고 가장 오래 사용되지 않은 항목을 제거
+    @Test
+    void evictsLeastRecentlyUsedEntryAtMaxEntries() {
+        IsbnLookupCache cache = cache(2, Duration.ofHours(1), Duration.ofHours(1));
+        cache.putFound("isbn-1", item("A"));
+        cache.putFound("isbn-2", item("B"));
+        cache.get("isbn-1");
+
+        cache.putFound("isbn-3", item("C"));
+
+        assertThat(cache.get("isbn-2")).isEmpty();
+        assertThat(cache.get("isbn-1")).isPresent();
+        assertThat(cache.get("isbn-3")).isPresent();
+        assertThat(cache.stats()).isEqualTo(new IsbnLookupCache.Stats(2, 2, 3, 1, 1, 0));
+    }
+
+    @Test
+    void storesNothingWhenDisabled() {
+        IsbnLookupCache cache = cache(0, Duration.ofHours(1), Duration.ofHours(1));
+        cache.putFound("isbn-1", item("A"));
+        cache.putNotFound("isbn-2");
+
+        assertThat(cache.get("isbn-1")).isEmpty();
+        assertThat(cache.get("isbn-2")).isEmpty();
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    // 일부 열만 읽은 도서 정보는 그 열들 안에서만 사용하고, 더 많은 열을 요청하면 미스
+    @Test
+    void usesNarrowerEntryOnlyForCoveredProjection() {
+        IsbnLookupCache cache = cache(10, Duration.ofHours(1), Duration.ofHours(1));
+        cache.putFound("isbn-1", item("A"), ColumnProjection.parse("isbn13,title"));
+
+        assertThat(cache.get("isbn-1", ColumnProjection.parse("title"))).isPresent();
+        assertThat(cache.get("isbn-1", ColumnProjection.parse("title,author"))).isEmpty();
+        assertThat(cache.get("isbn-1")).isEmpty();
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(2);
+
+        // 모든 열을 읽은 항목으로 교체되면 어떤 열 목록에도 사용
+        cache.putFound("isbn-1", item("A"));
+        assertThat(cache.get("isbn-1")).isPresent();
+        assertThat(cache.get("isbn-1", ColumnProjection.parse("title,author"))).isPresent();
+    }
+
+    @Test
+    void negativeEntryCoversAnyProjection() {
+        IsbnLookupCache cache = cache(10, Duration.ofHours(1), Duration.ofHours(1));
+        cache.putNotFound("isbn-1");
+
+        assertThat(cache.get("isbn-1", ColumnProjection.parse("title"))).isPresent();
+        assertThat(cache.get("isbn-1")).isPresent();
+    }
+
+    private static IsbnLookupCache cache(int maxEntries, Duration ttl, Duration negativeTtl) {
+        CacheProperties properties = new CacheProperties();
+        properties.setMaxEntries(maxEntries);
+        properties.setTtl(ttl);
+        properties.setNegativeTtl(negativeTtl);
+        return new IsbnLookupCache(properties);
+    }
+
+    private static AladinItemDto item(String title) {
+        AladinItemDto item = new AladinItemDto();
+        item.setTitle(title);
+        return item;
+    }
+}
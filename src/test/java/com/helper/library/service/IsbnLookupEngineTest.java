@@ -0,0 +1,97 @@
+package com.helper.library.service;
+
+import com.helper.library.config.LookupProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IsbnLookupEngineTest {
+
+    private final AladinService aladinService = mock(AladinService.class);
+    private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final IsbnLookupEngine engine = new IsbnLookupEngine(aladinService, taskExecutor, new LookupProperties());
+
+    @AfterEach
+    void shutdown() {
+        taskExecutor.shutdownNow();
+    }
+
+    // 표기가 달라도 정규화한 ISBN 이 같으면 작업 안에서 한 번만 조회하고, 뒤의 행은 cached 로 표시
+    @Test
+    void looksUpDuplicateIsbnsOncePerJob() {
+        when(aladinService.lookupAsync(anyString(), anyString(), any(ColumnProjection.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(LookupResult.notFound(false)));
+        List<String> isbns = List.of("9780306406157", "978-0-306-40615-7", "0306406152", "080442957X", "9780306406157");
+
+        List<LookupResult> results = new ArrayList<>();
+        engine.lookupInOrder(isbns, "key", (index, isbn, result) -> results.add(result));
+
+        verify(aladinService, times(1)).lookupAsync(eq("9780306406157"), eq("key"), any(ColumnProjection.class));
+        verify(aladinService, times(1)).lookupAsync(eq("9780804429573"), eq("key"), any(ColumnProjection.class));
+        assertThat(results).extracting(LookupResult::cached).containsExactly(false, true, true, false, true);
+        assertThat(results).extracting(LookupResult::status).containsOnly(LookupResult.Status.NOT_FOUND);
+    }
+
+    @Test
+    void sharesFailureWithDuplicateRows() {
+        when(aladinService.lookupAsync(anyString(), anyString(), any(ColumnProjection.class)))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        List<LookupResult> results = new ArrayList<>();
+        engine.lookupInOrder(List.of("9780306406157", "0306406152", "invalid"), "key",
+                (index, isbn, result) -> results.add(result));
+
+        verify(aladinService, times(1)).lookupAsync(anyString(), anyString(), any(ColumnProjection.class));
+        assertThat(results).extracting(LookupResult::status)
+                .containsExactly(LookupResult.Status.FAILED, LookupResult.Status.FAILED, LookupResult.Status.INVALID);
+    }
+
+    // 작업이 취소되면 이미 시작한 조회도 취소하고, 취소된 행은 완료 알림으로 기록하지 않음
+    @Test
+    void cancelsInFlightLookupsWhenInterrupted() throws Exception {
+        List<CompletableFuture<LookupResult>> lookups = new ArrayList<>();
+        when(aladinService.lookupAsync(anyString(), anyString(), any(ColumnProjection.class))).thenAnswer(invocation -> {
+            CompletableFuture<LookupResult> lookup = new CompletableFuture<>();
+            synchronized (lookups) {
+                lookups.add(lookup);
+            }
+            return lookup;
+        });
+        List<Integer> completed = new ArrayList<>();
+
+        Future<?> job = taskExecutor.submit(() -> engine.lookupInOrder(IsbnFeed.of(List.of("9780306406157", "080442957X")), 0, "key",
+                ColumnProjection.all(), (index, isbn, result) -> {
+                }, (index, isbn, result) -> completed.add(index)));
+        verify(aladinService, timeout(5000).times(2)).lookupAsync(anyString(), anyString(), any(ColumnProjection.class));
+
+        job.cancel(true);
+
+        assertThatThrownBy(() -> job.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        synchronized (lookups) {
+            for (CompletableFuture<LookupResult> lookup : lookups) {
+                assertThat(lookup).failsWithin(5, TimeUnit.SECONDS);
+                assertThat(lookup).isCancelled();
+            }
+        }
+        assertThat(completed).isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+package com.helper.library.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsbnNormalizerTest {
+
+    @Test
+    void acceptsIsbn13WithValidChecksum() {
+        assertThat(IsbnNormalizer.normalize("9780306406157")).isEqualTo("9780306406157");
+        assertThat(IsbnNormalizer.normalize("978-0-306-40615-7")).isEqualTo("9780306406157");
+        assertThat(IsbnNormalizer.normalize(" 978 0306 406157\t")).isEqualTo("9780306406157");
+    }
+
+    @Test
+    void returnsSameInstanceWhenAlreadyNormalized() {
+        String isbn = "9780306406157";
+        assertThat(IsbnNormalizer.normalize(isbn)).isSameAs(isbn);
+    }
+
+    @Test
+    void rejectsIsbn13WithBadChecksum() {
+        assertThat(IsbnNormalizer.normalize("9780306406158")).isNull();
+        assertThat(IsbnNormalizer.normalize("978-0-306-40615-0")).isNull();
+    }
+
+    @Test
+    void rejectsWrongLengthAndGarbage() {
+        assertThat(IsbnNormalizer.normalize(null)).isNull();
+        assertThat(IsbnNormalizer.normalize("")).isNull();
+        assertThat(IsbnNormalizer.normalize("97803064061570")).isNull();
+        assertThat(IsbnNormalizer.normalize("978030640615")).isNull();
+        assertThat(IsbnNormalizer.normalize("978O306406157")).isNull();
+    }
+
+    @Test
+    void convertsIsbn10To978() {
+        assertThat(IsbnNormalizer.normalize("0306406152")).isEqualTo("9780306406157");
+        assertThat(IsbnNormalizer.normalize("0-306-40615-2")).isEqualTo("9780306406157");
+    }
+
+    @Test
+    void rejectsIsbn10WithBadChecksum() {
+        assertThat(IsbnNormalizer.normalize("0306406153")).isNull();
+    }
+
+    // 체크 문자 X 는 10을 뜻하며 대소문자 모두 허용
+    @Test
+    void convertsIsbn10WithCheckCharacterX() {
+        assertThat(IsbnNormalizer.normalize("080442957X")).isEqualTo("9780804429573");
+        assertThat(IsbnNormalizer.normalize("080442957x")).isEqualTo("9780804429573");
+        assertThat(IsbnNormalizer.normalize("0-8044-2957-X")).isEqualTo("9780804429573");
+    }
+
+    @Test
+    void rejectsXOutsideLastIsbn10Position() {
+        assertThat(IsbnNormalizer.normalize("X804429575")).isNull();
+        assertThat(IsbnNormalizer.normalize("08044X9575")).isNull();
+        assertThat(IsbnNormalizer.normalize("978030640615X")).isNull();
+    }
+}
@@ -0,0 +1,129 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.config.JobProperties;
+import com.helper.library.dto.AladinItemDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobCheckpointStoreTest {
+
+    private static final List<String> ISBNS = List.of("9780306406157", "0306406152", "invalid");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoresRowsWrittenBeforeRestart() throws IOException {
+        writeCheckpoint("job-1");
+        long rowsLength = Files.size(directory.resolve("job-1.rows"));
+
+        List<JobCheckpoint> pending = reopen();
+
+        assertThat(pending).hasSize(1);
+        assertRestored(pending.get(0));
+        assertThat(Files.size(directory.resolve("job-1.rows"))).isEqualTo(rowsLength);
+    }
+
+    // 마지막 레코드를 쓰는 도중에 종료되면 길이만큼 본문이 없음
+    @Test
+    void truncatesTornTailRecord() throws IOException {
+        writeCheckpoint("job-1");
+        Path rowsFile = directory.resolve("job-1.rows");
+        long rowsLength = Files.size(rowsFile);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(rowsFile, StandardOpenOption.APPEND))) {
+            out.writeInt(64);
+            out.writeInt(0);
+            out.write(new byte[]{0, 0, '{', '"'});
+        }
+
+        List<JobCheckpoint> pending = reopen();
+
+        assertRestored(pending.get(0));
+        assertThat(Files.size(rowsFile)).isEqualTo(rowsLength);
+    }
+
+    @Test
+    void truncatesTailRecordWithBadCrc() throws IOException {
+        writeCheckpoint("job-1");
+        Path rowsFile = directory.resolve("job-1.rows");
+        long rowsLength = Files.size(rowsFile);
+        byte[] payload = {(byte) LookupResult.Status.NOT_FOUND.ordinal(), 0};
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(rowsFile, StandardOpenOption.APPEND))) {
+            out.writeInt(payload.length);
+            out.writeInt(JobCheckpoint.crc(payload, payload.length) + 1);
+            out.write(payload);
+        }
+
+        List<JobCheckpoint> pending = reopen();
+
+        assertRestored(pending.get(0));
+        assertThat(Files.size(rowsFile)).isEqualTo(rowsLength);
+    }
+
+    // 레코드 길이 필드까지 잘린 경우
+    @Test
+    void truncatesTornRecordHeader() throws IOException {
+        writeCheckpoint("job-1");
+        Path rowsFile = directory.resolve("job-1.rows");
+        long rowsLength = Files.size(rowsFile);
+        Files.write(rowsFile, new byte[]{0, 0}, StandardOpenOption.APPEND);
+
+        List<JobCheckpoint> pending = reopen();
+
+        assertRestored(pending.get(0));
+        assertThat(Files.size(rowsFile)).isEqualTo(rowsLength);
+    }
+
+    private void writeCheckpoint(String jobId) throws IOException {
+        JobCheckpointStore store = new JobCheckpointStore(properties(), objectMapper);
+        store.lockDirectory();
+        JobCheckpoint checkpoint = store.begin(jobId, "key", ColumnProjection.all(), IsbnFeed.of(ISBNS));
+        checkpoint.append(LookupResult.found(item(), false));
+        checkpoint.append(LookupResult.found(item(), true));
+        checkpoint.append(LookupResult.invalid());
+        store.close();
+    }
+
+    private List<JobCheckpoint> reopen() throws IOException {
+        JobCheckpointStore store = new JobCheckpointStore(properties(), objectMapper);
+        store.lockDirectory();
+        try {
+            return store.loadPending();
+        } finally {
+            store.close();
+        }
+    }
+
+    private static void assertRestored(JobCheckpoint checkpoint) {
+        assertThat(checkpoint.header().isbns()).isEqualTo(ISBNS);
+        assertThat(checkpoint.restoredResults()).extracting(LookupResult::status)
+                .containsExactly(LookupResult.Status.FOUND, LookupResult.Status.FOUND, LookupResult.Status.INVALID);
+        assertThat(checkpoint.restoredResults()).extracting(LookupResult::cached).containsExactly(false, true, false);
+        assertThat(checkpoint.restoredResults().get(0).item().getTitle()).isEqualTo("Title");
+    }
+
+    private JobProperties properties() {
+        JobProperties properties = new JobProperties();
+        properties.setCheckpointPath(directory.toString());
+        return properties;
+    }
+
+    private static AladinItemDto item() {
+        AladinItemDto item = new AladinItemDto();
+        item.setTitle("Title");
+        item.setIsbn13("9780306406157");
+        return item;
+    }
+}
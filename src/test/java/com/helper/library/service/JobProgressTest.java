@@ -0,0 +1,49 @@
+package com.helper.library.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobProgressTest {
+
+    @Test
+    void countsFailuresAndCacheHits() {
+        JobProgress progress = new JobProgress();
+        progress.start(4);
+        progress.record(LookupResult.notFound(true));
+        progress.record(LookupResult.failed());
+        progress.record(LookupResult.invalid());
+
+        JobProgress.Snapshot snapshot = progress.snapshot();
+
+        assertThat(snapshot.completed()).isEqualTo(3);
+        assertThat(snapshot.percent()).isEqualTo(75.0);
+        assertThat(snapshot.cacheHits()).isEqualTo(1);
+        assertThat(snapshot.failures()).isEqualTo(1);
+    }
+
+    // 체크포인트에서 복원한 행은 진행률에는 포함하지만 처리 속도와 남은 시간은 이번 실행에서 처리한 행으로만 계산
+    @Test
+    void excludesRestoredRowsFromRateAndEta() throws InterruptedException {
+        JobProgress progress = new JobProgress();
+        progress.start(2000);
+        for (int i = 0; i < 1000; i++) {
+            progress.recordRestored(LookupResult.notFound(false));
+        }
+
+        assertThat(progress.snapshot().rowsPerSecond()).isZero();
+        assertThat(progress.snapshot().etaSeconds()).isEqualTo(-1);
+
+        Thread.sleep(200);
+        for (int i = 0; i < 10; i++) {
+            progress.record(LookupResult.notFound(false));
+        }
+
+        JobProgress.Snapshot snapshot = progress.snapshot();
+        assertThat(snapshot.completed()).isEqualTo(1010);
+        assertThat(snapshot.percent()).isEqualTo(50.5);
+        // 10건 / 0.2초 이상이므로 초당 50건 이하, 남은 990건은 20초 가량
+        assertThat(snapshot.rowsPerSecond()).isLessThanOrEqualTo(50.0);
+        assertThat(snapshot.etaSeconds()).isGreaterThanOrEqualTo(19);
+    }
+}
@@ -0,0 +1,178 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.helper.library.dto.AladinItemDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobResultLogTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @TempDir
+    Path directory;
+
+    private JobResultLog resultLog;
+
+    @AfterEach
+    void close() {
+        if (resultLog != null) {
+            resultLog.delete();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    void readsRowsInInputOrder() throws Exception {
+        resultLog = create(new ObjectMapper());
+        appendOutOfOrder();
+        resultLog.finish();
+
+        for (int index = 0; index < 3; index++) {
+            JobResultLog.Entry entry = resultLog.await(JobResultLog.Order.INPUT, index);
+            assertThat(entry.index()).isEqualTo(index);
+            assertThat(entry.isbn()).isEqualTo("isbn-" + index);
+        }
+        assertThat(resultLog.await(JobResultLog.Order.INPUT, 3)).isNull();
+    }
+
+    @Test
+    void readsRowsInCompletionOrder() throws Exception {
+        resultLog = create(new ObjectMapper());
+        appendOutOfOrder();
+        resultLog.finish();
+
+        int[] expectedIndexes = {2, 0, 1};
+        for (int sequence = 0; sequence < 3; sequence++) {
+            JobResultLog.Entry entry = resultLog.await(JobResultLog.Order.COMPLETION, sequence);
+            assertThat(entry.sequence()).isEqualTo(sequence);
+            assertThat(entry.index()).isEqualTo(expectedIndexes[sequence]);
+        }
+        assertThat(resultLog.await(JobResultLog.Order.COMPLETION, 3)).isNull();
+        assertThat(resultLog.size()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsItemAndStatusOfEachRow() throws Exception {
+        resultLog = create(new ObjectMapper());
+        resultLog.append(0, "9780306406157", LookupResult.found(item("Title"), true));
+        resultLog.append(1, "bad", LookupResult.invalid());
+
+        JobResultLog.Entry found = resultLog.await(JobResultLog.Order.INPUT, 0);
+        assertThat(found.result().status()).isEqualTo(LookupResult.Status.FOUND);
+        assertThat(found.result().cached()).isTrue();
+        assertThat(found.result().item().getTitle()).isEqualTo("Title");
+
+        JobResultLog.Entry invalid = resultLog.await(JobResultLog.Order.INPUT, 1);
+        assertThat(invalid.result().status()).isEqualTo(LookupResult.Status.INVALID);
+        assertThat(invalid.result().item()).isNull();
+    }
+
+    // 재연결한 스트림은 이미 받은 행 다음부터 읽음. 아직 끝나지 않은 행은 기록될 때까지 기다림
+    @Test
+    void readsFromOffsetAndWaitsForPendingRow() throws Exception {
+        resultLog = create(new ObjectMapper());
+        resultLog.append(0, "isbn-0", LookupResult.notFound(false));
+        resultLog.append(1, "isbn-1", LookupResult.notFound(false));
+
+        assertThat(resultLog.await(JobResultLog.Order.INPUT, 1).isbn()).isEqualTo("isbn-1");
+        assertThat(resultLog.isAvailable(JobResultLog.Order.INPUT, 2)).isFalse();
+
+        CompletableFuture<JobResultLog.Entry> pending = CompletableFuture.supplyAsync(() -> await(JobResultLog.Order.INPUT, 2), executor);
+        Thread.sleep(50);
+        assertThat(pending).isNotDone();
+
+        resultLog.append(2, "isbn-2", LookupResult.notFound(false));
+
+        assertThat(pending.get(5, TimeUnit.SECONDS).isbn()).isEqualTo("isbn-2");
+    }
+
+    // 도서 정보를 변환하지 못한 행도 FAILED 로 남아서 뒤의 행이 빠지지 않음
+    @Test
+    void recordsUnencodableRowAsFailed() throws Exception {
+        ObjectMapper failing = new ObjectMapper().registerModule(new SimpleModule().addSerializer(AladinItemDto.class,
+                new JsonSerializer<>() {
+                    @Override
+                    public void serialize(AladinItemDto value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                        throw JsonMappingException.from(gen, "boom");
+                    }
+                }));
+        resultLog = create(failing);
+        resultLog.append(0, "isbn-0", LookupResult.found(item("Title"), false));
+        resultLog.append(1, "isbn-1", LookupResult.notFound(false));
+        resultLog.finish();
+
+        JobResultLog.Entry failed = resultLog.await(JobResultLog.Order.INPUT, 0);
+        assertThat(failed.isbn()).isEqualTo("isbn-0");
+        assertThat(failed.result().status()).isEqualTo(LookupResult.Status.FAILED);
+        assertThat(failed.result().item()).isNull();
+        assertThat(resultLog.await(JobResultLog.Order.INPUT, 1).isbn()).isEqualTo("isbn-1");
+        assertThat(resultLog.await(JobResultLog.Order.COMPLETION, 1).isbn()).isEqualTo("isbn-1");
+    }
+
+    // 작업이 취소, 다운로드, 만료되어 기록이 삭제되면 기다리던 스트림과 이후 읽기 모두 끝남
+    @Test
+    void endsStreamWhenDeletedDuringRead() throws Exception {
+        resultLog = create(new ObjectMapper());
+        resultLog.append(0, "isbn-0", LookupResult.notFound(false));
+
+        CompletableFuture<JobResultLog.Entry> pending = CompletableFuture.supplyAsync(() -> await(JobResultLog.Order.INPUT, 1), executor);
+        Thread.sleep(50);
+        resultLog.delete();
+
+        assertThat(pending.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(resultLog.await(JobResultLog.Order.INPUT, 0)).isNull();
+        assertThat(resultLog.await(JobResultLog.Order.COMPLETION, 0)).isNull();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void ignoresRowsAfterFinish() throws Exception {
+        resultLog = create(new ObjectMapper());
+        resultLog.finish();
+        resultLog.append(0, "isbn-0", LookupResult.notFound(false));
+
+        assertThat(resultLog.await(JobResultLog.Order.INPUT, 0)).isNull();
+        assertThat(resultLog.size()).isZero();
+    }
+
+    // 행 번호 2, 0, 1 순서로 끝남
+    private void appendOutOfOrder() {
+        resultLog.append(2, "isbn-2", LookupResult.notFound(false));
+        resultLog.append(0, "isbn-0", LookupResult.found(item("Zero"), false));
+        resultLog.append(1, "isbn-1", LookupResult.failed());
+    }
+
+    private JobResultLog.Entry await(JobResultLog.Order order, int position) {
+        try {
+            return resultLog.await(order, position);
+        } catch (InterruptedException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JobResultLog create(ObjectMapper objectMapper) throws IOException {
+        return JobResultLog.create("job-1", ColumnProjection.all(), directory.toString(), objectMapper);
+    }
+
+    private static AladinItemDto item(String title) {
+        AladinItemDto item = new AladinItemDto();
+        item.setTitle(title);
+        return item;
+    }
+}
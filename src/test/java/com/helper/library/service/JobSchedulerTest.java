@@ -0,0 +1,92 @@
+package com.helper.library.service;
+
+import com.helper.library.config.JobProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 작업 future 가 완료되면 같은 스레드에서 다음 작업이 시작되므로 시작 순서를 그대로 확인할 수 있음
+class JobSchedulerTest {
+
+    private final List<String> started = new ArrayList<>();
+    private final Map<String, CompletableFuture<Void>> tasks = new HashMap<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    @Test
+    void alternatesBetweenKeysInArrivalOrder() {
+        JobScheduler scheduler = scheduler(1);
+        submit(scheduler, "a1", "A");
+        submit(scheduler, "a2", "A");
+        submit(scheduler, "a3", "A");
+        submit(scheduler, "b1", "B");
+        submit(scheduler, "c1", "C");
+        submit(scheduler, "b2", "B");
+
+        finishAll();
+
+        assertThat(started).containsExactly("a1", "a2", "b1", "c1", "a3", "b2");
+    }
+
+    // a3 가 먼저 들어왔어도 실행 중인 작업이 없는 B 를 먼저 시작
+    @Test
+    void prefersKeyWithFewestRunningJobs() {
+        JobScheduler scheduler = scheduler(2);
+        submit(scheduler, "a1", "A");
+        submit(scheduler, "a2", "A");
+        submit(scheduler, "a3", "A");
+        submit(scheduler, "b1", "B");
+
+        assertThat(started).containsExactly("a1", "a2");
+        assertThat(positions).containsEntry("b1", 1).containsEntry("a3", 2);
+
+        tasks.get("a1").complete(null);
+
+        assertThat(started).containsExactly("a1", "a2", "b1");
+        assertThat(positions).containsEntry("a3", 1);
+        assertThat(scheduler.runningJobs()).isEqualTo(2);
+        assertThat(scheduler.queueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void startsNextJobWhenQueuedJobIsCancelled() {
+        JobScheduler scheduler = scheduler(1);
+        submit(scheduler, "a1", "A");
+        submit(scheduler, "a2", "A");
+        submit(scheduler, "b1", "B");
+
+        assertThat(scheduler.cancel("a2")).isTrue();
+        finishAll();
+
+        assertThat(started).containsExactly("a1", "b1");
+        assertThat(scheduler.cancel("a2")).isFalse();
+    }
+
+    private JobScheduler scheduler(int maxConcurrentJobs) {
+        JobProperties properties = new JobProperties();
+        properties.setMaxConcurrentJobs(maxConcurrentJobs);
+        return new JobScheduler(properties);
+    }
+
+    private void submit(JobScheduler scheduler, String jobId, String fairnessKey) {
+        boolean accepted = scheduler.submit(jobId, fairnessKey, () -> {
+            started.add(jobId);
+            CompletableFuture<Void> task = new CompletableFuture<>();
+            tasks.put(jobId, task);
+            return task;
+        }, position -> positions.put(jobId, position));
+        assertThat(accepted).isTrue();
+    }
+
+    // 시작된 순서대로 하나씩 완료
+    private void finishAll() {
+        for (int i = 0; i < started.size(); i++) {
+            tasks.get(started.get(i)).complete(null);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.helper.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helper.library.config.AppConfig;
+import com.helper.library.config.JobProperties;
+import com.helper.library.config.OutputProperties;
+import com.helper.library.config.StoreProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// 한 머신에서 같은 공유 디렉터리를 보는 두 인스턴스(A, B)
+class SharedFileJobStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @TempDir
+    Path directory;
+
+    private Path shared;
+    private SharedFileJobStore storeA;
+    private SharedFileJobStore storeB;
+    private JobRegistry registryA;
+    private JobRegistry registryB;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        shared = directory.resolve("shared");
+        storeA = new SharedFileJobStore(shared, objectMapper);
+        storeB = new SharedFileJobStore(shared, objectMapper);
+        registryA = registry("a", storeA);
+        registryB = registry("b", storeB);
+    }
+
+    @AfterEach
+    void shutdown() {
+        taskExecutor.shutdownNow();
+    }
+
+    @Test
+    void jobCreatedOnOneInstanceIsVisibleFromAnother() {
+        JobStatus status = registryA.create();
+
+        JobRecord record = storeB.find(status.getJobId());
+        assertThat(record).isNotNull();
+        assertThat(record.owner()).isEqualTo("a");
+        assertThat(record.state()).isEqualTo(JobRecord.State.QUEUED);
+
+        status.updateQueuePosition(3);
+        registryA.syncStore();
+        assertThat(storeB.find(status.getJobId()).queuePosition()).isEqualTo(3);
+        assertThat(storeB.find("unknown")).isNull();
+    }
+
+    // 완료된 결과는 공유 디렉터리로 옮겨지고, B 에서 다운로드하면 양쪽에서 모두 정리됨
+    @Test
+    void resultCompletedOnOneInstanceCanBeDownloadedFromAnother() throws IOException {
+        JobStatus status = registryA.create();
+        String jobId = status.getJobId();
+        Path localResult = Files.writeString(Files.createDirectories(directory.resolve("a")).resolve("result.xlsx"), "workbook");
+
+        assertThat(registryA.complete(jobId, localResult)).isTrue();
+
+        assertThat(localResult).doesNotExist();
+        Path sharedResult = storeB.resultFile(jobId);
+        assertThat(sharedResult.getParent()).isEqualTo(shared);
+        assertThat(sharedResult).hasContent("workbook");
+        JobRecord record = storeB.find(jobId);
+        assertThat(record.state()).isEqualTo(JobRecord.State.COMPLETED);
+        assertThat(record.resultBytes()).isEqualTo(8L);
+
+        // 다운로드한 인스턴스가 작업을 제거하면 실행한 인스턴스도 다음 동기화 때 제거
+        registryB.remove(jobId);
+        assertThat(storeA.find(jobId)).isNull();
+        assertThat(sharedResult).doesNotExist();
+        registryA.syncStore();
+        assertThat(registryA.get(jobId)).isNull();
+    }
+
+    @Test
+    void cancelRequestedOnOneInstanceIsAppliedByTheOwner() {
+        CompletableFuture<Path> work = new CompletableFuture<>();
+        ExcelService excelService = mock(ExcelService.class);
+        when(excelService.createExcelFile(any(IsbnFeed.class), anyString(), any(), any(), any(), any())).thenReturn(work);
+        JobProperties properties = properties("a");
+        JobRunner runnerA = new JobRunner(excelService, new JobScheduler(properties), registryA, checkpointStore(properties),
+                storeA, new OutputProperties(), properties, objectMapper, taskExecutor, new SimpleMeterRegistry());
+
+        String jobId = registryA.create().getJobId();
+        assertThat(runnerA.submit(jobId, IsbnFeed.of(List.of("9780306406157")), "key", ColumnProjection.all())).isTrue();
+
+        storeB.requestCancel(jobId);
+        assertThat(storeA.isCancelRequested(jobId)).isTrue();
+
+        runnerA.applyCancelRequests();
+
+        assertThat(work).isCancelled();
+        assertThat(registryA.get(jobId)).isNull();
+        assertThat(storeB.find(jobId)).isNull();
+        assertThat(storeB.isCancelRequested(jobId)).isFalse();
+    }
+
+    // B 에서 상태를 조회하는 동안에는 A 가 연결이 없어도 방치된 작업으로 보지 않음
+    @Test
+    void relayOnAnotherInstanceMarksJobAsWatched() {
+        String jobId = registryA.create().getJobId();
+        JobStatusRelay relayB = new JobStatusRelay(storeB, taskExecutor);
+
+        assertThat(storeA.watchedAt(jobId)).isZero();
+        assertThat(relayB.follow(jobId)).isNotNull();
+        assertThat(storeA.watchedAt(jobId)).isPositive();
+
+        assertThat(relayB.follow("unknown")).isNull();
+    }
+
+    @Test
+    void cancelRequestForUnknownJobIsIgnored() {
+        storeB.requestCancel("unknown");
+
+        assertThat(storeA.isCancelRequested("unknown")).isFalse();
+    }
+
+    @Test
+    void expireAndDeleteRemoveRecordAndResult() throws IOException {
+        JobStatus expiring = registryA.create();
+        JobStatus deleted = registryA.create();
+        storeA.putResult(expiring.getJobId(), Files.writeString(directory.resolve("expiring.xlsx"), "x"));
+        storeA.putResult(deleted.getJobId(), Files.writeString(directory.resolve("deleted.xlsx"), "x"));
+        storeA.markWatched(deleted.getJobId());
+
+        storeB.delete(deleted.getJobId());
+
+        assertThat(storeA.find(deleted.getJobId())).isNull();
+        assertThat(storeA.resultFile(deleted.getJobId())).isNull();
+        assertThat(storeA.watchedAt(deleted.getJobId())).isZero();
+
+        assertThat(storeB.expire(System.currentTimeMillis() - 60_000)).isEmpty();
+        assertThat(storeB.expire(System.currentTimeMillis() + 1)).containsExactly(expiring.getJobId());
+
+        assertThat(storeA.find(expiring.getJobId())).isNull();
+        assertThat(storeA.resultFile(expiring.getJobId())).isNull();
+        try (var files = Files.list(shared)) {
+            assertThat(files.map(file -> file.getFileName().toString()).toList()).containsExactly(".lock");
+        }
+    }
+
+    // 인스턴스별 디렉터리를 두 인스턴스가 같이 쓰면 시작하지 않음
+    @Test
+    void rejectsSecondOwnerOfInstanceDirectories() throws IOException {
+        JobProperties properties = properties("a");
+        properties.setCheckpointEnabled(true);
+        properties.setCheckpointPath(directory.resolve("a/jobs").toString());
+        JobCheckpointStore first = new JobCheckpointStore(properties, objectMapper);
+        first.lockDirectory();
+        try {
+            assertThatThrownBy(() -> new JobCheckpointStore(properties, objectMapper).lockDirectory())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("bookworm.jobs.checkpoint-path");
+        } finally {
+            first.close();
+        }
+        // 먼저 쓰던 인스턴스가 종료되면 다시 쓸 수 있음
+        JobCheckpointStore next = new JobCheckpointStore(properties, objectMapper);
+        next.lockDirectory();
+        next.close();
+
+        StoreProperties storeProperties = new StoreProperties();
+        storeProperties.setPath(directory.resolve("a/books.log").toString());
+        BookMetadataStore books = new BookMetadataStore(storeProperties, objectMapper);
+        books.open();
+        try {
+            assertThatThrownBy(() -> new BookMetadataStore(storeProperties, objectMapper).open())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("bookworm.store.path");
+        } finally {
+            books.close();
+        }
+    }
+
+    @Test
+    void rejectsInstanceDirectoriesInsideSharedStore() {
+        JobProperties properties = properties("a");
+        properties.setStore(JobProperties.StoreType.SHARED_FS);
+        properties.setStorePath(shared.toString());
+        properties.setCheckpointPath(shared.resolve("jobs").toString());
+        StoreProperties storeProperties = new StoreProperties();
+        storeProperties.setPath(directory.resolve("a/books.log").toString());
+
+        assertThatThrownBy(() -> new AppConfig().jobStore(properties, storeProperties, objectMapper))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("bookworm.jobs.checkpoint-path");
+
+        properties.setCheckpointPath(directory.resolve("a/jobs").toString());
+        storeProperties.setPath(shared.resolve("books.log").toString());
+        assertThatThrownBy(() -> new AppConfig().jobStore(properties, storeProperties, objectMapper))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("bookworm.store.path");
+    }
+
+    private JobRegistry registry(String instanceId, JobStore jobStore) {
+        JobProperties properties = properties(instanceId);
+        return new JobRegistry(properties, checkpointStore(properties), jobStore);
+    }
+
+    private JobCheckpointStore checkpointStore(JobProperties properties) {
+        return new JobCheckpointStore(properties, objectMapper);
+    }
+
+    private static JobProperties properties(String instanceId) {
+        JobProperties properties = new JobProperties();
+        properties.setInstanceId(instanceId);
+        properties.setCheckpointEnabled(false);
+        return properties;
+    }
+}